@@ -0,0 +1,98 @@
+package org.Roshan.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Benchmarks the conversion core without the IDE: parsing, reading the model and planning
+ * generated Hibernate mappings, on one thread and on a fork-join pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BatchConversionBenchmark {
+
+    @Param({"1000"})
+    public int fileCount;
+
+    @Param({"20"})
+    public int classesPerFile;
+
+    private Path directory;
+    private List<Path> files;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("conversion-benchmark");
+        files = new ArrayList<>(fileCount);
+        for (int i = 0; i < fileCount; i++) {
+            Path file = directory.resolve("Mapping" + i + ".hbm.xml");
+            Files.writeString(file, hibernateMapping(i));
+            files.add(file);
+        }
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    private String hibernateMapping(int fileIndex) {
+        StringBuilder xml = new StringBuilder(classesPerFile * 600);
+        xml.append("<?xml version=\"1.0\"?>\n<hibernate-mapping package=\"bench\">\n");
+        for (int i = 0; i < classesPerFile; i++) {
+            xml.append("  <class name=\"Entity").append(fileIndex).append('_').append(i)
+                    .append("\" table=\"ENTITY_").append(i).append("\">\n")
+                    .append("    <id name=\"id\" column=\"ID\" generator-class=\"sequence\"/>\n")
+                    .append("    <property name=\"name\" column=\"NAME\" length=\"255\" not-null=\"true\"/>\n")
+                    .append("    <property name=\"created\" column=\"CREATED\" type=\"timestamp\"/>\n")
+                    .append("    <many-to-one name=\"parent\" column=\"PARENT_ID\" fetch=\"lazy\"/>\n")
+                    .append("    <many-to-many name=\"related\">\n")
+                    .append("      <join-table name=\"RELATED\">\n")
+                    .append("        <join-column name=\"ENTITY_ID\" referenced-column-name=\"ID\"/>\n")
+                    .append("      </join-table>\n")
+                    .append("    </many-to-many>\n")
+                    .append("  </class>\n");
+        }
+        return xml.append("</hibernate-mapping>\n").toString();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        pool.shutdown();
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<BatchConverter.FileResult> sequential() {
+        List<BatchConverter.FileResult> results = new ArrayList<>(files.size());
+        for (Path file : files) {
+            results.add(BatchConverter.convertFile(file));
+        }
+        return results;
+    }
+
+    @Benchmark
+    public List<BatchConverter.FileResult> forkJoin() {
+        return BatchConverter.convert(files, pool);
+    }
+}
@@ -0,0 +1,142 @@
+package org.Roshan.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An annotation to add, as plain data: the qualified annotation name and its attributes with
+ * values already written as Java expressions. {@link #render()} gives the source text.
+ *
+ * @param qualifiedName Fully qualified annotation name
+ * @param attributes    Attributes in the order they are written
+ */
+public record AnnotationSpec(String qualifiedName, List<Attribute> attributes) {
+
+    /**
+     * One attribute of an annotation.
+     *
+     * @param name  Attribute name, {@code value} is written without the name when it is the only one
+     * @param value Java expression of the value
+     */
+    public record Attribute(String name, String value) {
+    }
+
+    public AnnotationSpec {
+        attributes = List.copyOf(attributes);
+    }
+
+    /**
+     * An annotation without attributes.
+     */
+    public static AnnotationSpec of(String qualifiedName) {
+        return new AnnotationSpec(qualifiedName, List.of());
+    }
+
+    public static Builder builder(String qualifiedName) {
+        return new Builder(qualifiedName);
+    }
+
+    /**
+     * The value of an attribute as written, or null if the annotation does not set it.
+     */
+    public String attribute(String name) {
+        for (Attribute attribute : attributes) {
+            if (attribute.name().equals(name)) return attribute.value();
+        }
+        return null;
+    }
+
+    /**
+     * The annotation as Java source, with the qualified name so no import is needed.
+     */
+    public String render() {
+        if (attributes.isEmpty()) {
+            return "@" + qualifiedName;
+        }
+
+        StringBuilder text = new StringBuilder("@").append(qualifiedName).append('(');
+        if (attributes.size() == 1 && "value".equals(attributes.get(0).name())) {
+            text.append(attributes.get(0).value());
+        } else {
+            for (int i = 0; i < attributes.size(); i++) {
+                if (i > 0) text.append(", ");
+                text.append(attributes.get(i).name()).append(" = ").append(attributes.get(i).value());
+            }
+        }
+        return text.append(')').toString();
+    }
+
+    /**
+     * Writes a string as a Java string literal.
+     */
+    public static String quote(String value) {
+        StringBuilder literal = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> literal.append("\\\"");
+                case '\\' -> literal.append("\\\\");
+                case '\n' -> literal.append("\\n");
+                case '\r' -> literal.append("\\r");
+                case '\t' -> literal.append("\\t");
+                default -> literal.append(c);
+            }
+        }
+        return literal.append('"').toString();
+    }
+
+    /**
+     * Collects the attributes of an annotation spec in order.
+     */
+    public static final class Builder {
+        private final String qualifiedName;
+        private final List<Attribute> attributes = new ArrayList<>();
+
+        private Builder(String qualifiedName) {
+            this.qualifiedName = qualifiedName;
+        }
+
+        /**
+         * Adds an attribute whose value is already a Java expression, e.g. a number or boolean.
+         */
+        public Builder raw(String name, String expression) {
+            attributes.add(new Attribute(name, expression));
+            return this;
+        }
+
+        public Builder string(String name, String value) {
+            return raw(name, quote(value));
+        }
+
+        /**
+         * Adds an enum constant, e.g. {@code FetchType.LAZY}.
+         */
+        public Builder enumValue(String name, String enumType, String constant) {
+            return raw(name, enumType + "." + constant);
+        }
+
+        public Builder classLiteral(String name, String className) {
+            return raw(name, className + ".class");
+        }
+
+        /**
+         * Adds an array of nested annotations.
+         */
+        public Builder annotations(String name, List<AnnotationSpec> values) {
+            StringBuilder array = new StringBuilder("{");
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) array.append(", ");
+                array.append(values.get(i).render());
+            }
+            return raw(name, array.append('}').toString());
+        }
+
+        public boolean isEmpty() {
+            return attributes.isEmpty();
+        }
+
+        public AnnotationSpec build() {
+            return new AnnotationSpec(qualifiedName, attributes);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package org.Roshan.core;
+
+/**
+ * The class or member an annotation goes on, by name. The adapter resolves it to its own
+ * representation, e.g. a PSI field.
+ *
+ * @param className Qualified name of the class as written in the mapping
+ * @param kind      Whether the annotation goes on the class or one of its fields
+ * @param member    Field name, null for {@link Kind#CLASS}
+ */
+public record AnnotationTarget(String className, Kind kind, String member) {
+
+    public enum Kind {
+        CLASS,
+        FIELD
+    }
+
+    public static AnnotationTarget ofClass(String className) {
+        return new AnnotationTarget(className, Kind.CLASS, null);
+    }
+
+    public static AnnotationTarget ofField(String className, String fieldName) {
+        return new AnnotationTarget(className, Kind.FIELD, fieldName);
+    }
+}
@@ -0,0 +1,94 @@
+package org.Roshan.core;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Converts many mapping files in parallel, outside the IDE. Every file is parsed, read into the
+ * model and planned on its own, so the files are split across the pool's workers without any
+ * shared state. Inverse collections are therefore only resolved against classes mapped in the
+ * same file.
+ */
+public final class BatchConverter {
+
+    /**
+     * The planned annotations of one file.
+     *
+     * @param file        The mapping file
+     * @param annotations Planned annotations in order, empty if the file failed or is no mapping
+     * @param error       Why the file could not be converted, null if it was
+     */
+    public record FileResult(Path file, List<PlannedAnnotation> annotations, String error) {
+        public FileResult {
+            annotations = List.copyOf(annotations);
+        }
+
+        public boolean isSuccess() {
+            return error == null;
+        }
+    }
+
+    private BatchConverter() {
+    }
+
+    /**
+     * Converts the files on the common pool.
+     */
+    public static List<FileResult> convert(Collection<Path> files) {
+        return convert(files, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Converts the files on the given pool. The results are in the order of the files.
+     */
+    public static List<FileResult> convert(Collection<Path> files, ForkJoinPool pool) {
+        List<Path> ordered = new ArrayList<>(files);
+        // A parallel stream started inside the pool runs on the pool's workers
+        return pool.submit(() -> ordered.parallelStream().map(BatchConverter::convertFile).toList()).join();
+    }
+
+    /**
+     * Converts one file, a Hibernate mapping or a Spring beans document.
+     */
+    public static FileResult convertFile(Path file) {
+        try {
+            return new FileResult(file, plan(XmlElementParser.parse(file)), null);
+        } catch (IOException | RuntimeException e) {
+            return new FileResult(file, List.of(), e.toString());
+        }
+    }
+
+    /**
+     * Plans the annotations for a parsed document, nothing for documents of another kind.
+     */
+    public static List<PlannedAnnotation> plan(XmlElement root) {
+        List<PlannedAnnotation> annotations = new ArrayList<>();
+        switch (root.name()) {
+            case HibernateMappingReader.HIBERNATE_MAPPING_TAG -> {
+                List<HibernateModel.Entity> entities = HibernateMappingReader.read(root);
+                // Inverse collections are resolved against the other classes of the same document
+                Map<String, HibernateModel.Entity> entitiesByClass = new HashMap<>();
+                for (HibernateModel.Entity entity : entities) {
+                    entitiesByClass.put(entity.className(), entity);
+                }
+                for (HibernateModel.Entity entity : entities) {
+                    annotations.addAll(HibernateAnnotationRules.plan(entity, entitiesByClass::get));
+                }
+            }
+            case SpringBeansReader.BEANS_TAG -> {
+                for (SpringModel.Bean bean : SpringBeansReader.read(root)) {
+                    annotations.addAll(SpringAnnotationRules.plan(bean));
+                }
+            }
+            default -> {
+            }
+        }
+        return annotations;
+    }
+}
@@ -0,0 +1,624 @@
+package org.Roshan.core;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Computes the JPA annotations that replace a Hibernate class mapping. Pure functions of the
+ * model, safe to call from any thread.
+ */
+public final class HibernateAnnotationRules {
+    private static final String JPA = "jakarta.persistence.";
+    public static final String ENTITY = JPA + "Entity";
+    public static final String TABLE = JPA + "Table";
+    public static final String ID = JPA + "Id";
+    public static final String GENERATED_VALUE = JPA + "GeneratedValue";
+    public static final String COLUMN = JPA + "Column";
+    public static final String TEMPORAL = JPA + "Temporal";
+    public static final String MANY_TO_ONE = JPA + "ManyToOne";
+    public static final String ONE_TO_MANY = JPA + "OneToMany";
+    public static final String MANY_TO_MANY = JPA + "ManyToMany";
+    public static final String JOIN_COLUMN = JPA + "JoinColumn";
+    public static final String JOIN_TABLE = JPA + "JoinTable";
+    public static final String EMBEDDABLE = JPA + "Embeddable";
+    public static final String EMBEDDED_ID = JPA + "EmbeddedId";
+    public static final String ID_CLASS = JPA + "IdClass";
+    public static final String ELEMENT_COLLECTION = JPA + "ElementCollection";
+    public static final String COLLECTION_TABLE = JPA + "CollectionTable";
+    public static final String ORDER_COLUMN = JPA + "OrderColumn";
+    public static final String MAP_KEY_COLUMN = JPA + "MapKeyColumn";
+    public static final String CACHEABLE = JPA + "Cacheable";
+    public static final String VERSION = JPA + "Version";
+    public static final String BASIC = JPA + "Basic";
+    private static final String INDEX = JPA + "Index";
+    private static final String UNIQUE_CONSTRAINT = JPA + "UniqueConstraint";
+    private static final String FETCH_TYPE = JPA + "FetchType";
+
+    private static final String HIBERNATE = "org.hibernate.annotations.";
+    public static final String BATCH_SIZE = HIBERNATE + "BatchSize";
+    public static final String FETCH = HIBERNATE + "Fetch";
+    public static final String LAZY_COLLECTION = HIBERNATE + "LazyCollection";
+    public static final String CACHE = HIBERNATE + "Cache";
+    public static final String DYNAMIC_UPDATE = HIBERNATE + "DynamicUpdate";
+    public static final String DYNAMIC_INSERT = HIBERNATE + "DynamicInsert";
+    public static final String IMMUTABLE = HIBERNATE + "Immutable";
+    public static final String SELECT_BEFORE_UPDATE = HIBERNATE + "SelectBeforeUpdate";
+    public static final String OPTIMISTIC_LOCKING = HIBERNATE + "OptimisticLocking";
+    public static final String POLYMORPHISM = HIBERNATE + "Polymorphism";
+    public static final String FORMULA = HIBERNATE + "Formula";
+
+    private HibernateAnnotationRules() {
+    }
+
+    /**
+     * All annotations for an entity, in the order they should be added, without looking at other
+     * entities. Annotations for an embedded key target the key class.
+     */
+    public static List<PlannedAnnotation> plan(HibernateModel.Entity entity) {
+        return plan(entity, className -> null);
+    }
+
+    /**
+     * All annotations for an entity, in the order they should be added. Annotations for an
+     * embedded key target the key class.
+     *
+     * @param entities Finds the mapping of another entity by qualified class name, null if it is
+     *                 unknown; used to find the owning side of inverse collections
+     */
+    public static List<PlannedAnnotation> plan(HibernateModel.Entity entity,
+                                               Function<String, HibernateModel.Entity> entities) {
+        List<PlannedAnnotation> annotations = new ArrayList<>();
+        String className = entity.className();
+
+        AnnotationTarget classTarget = AnnotationTarget.ofClass(className);
+        annotations.add(new PlannedAnnotation(classTarget, AnnotationSpec.of(ENTITY)));
+        AnnotationSpec table = table(entity);
+        if (table != null) {
+            annotations.add(new PlannedAnnotation(classTarget, table));
+        }
+        if (entity.batchSize() != null) {
+            annotations.add(new PlannedAnnotation(classTarget, batchSize(entity.batchSize())));
+        }
+        AnnotationSpec cache = cache(entity.cache());
+        if (cache != null) {
+            annotations.add(new PlannedAnnotation(classTarget, AnnotationSpec.of(CACHEABLE)));
+            annotations.add(new PlannedAnnotation(classTarget, cache));
+        }
+        for (AnnotationSpec spec : classOptions(entity.options())) {
+            annotations.add(new PlannedAnnotation(classTarget, spec));
+        }
+
+        HibernateModel.Id id = entity.id();
+        if (id != null && id.name() != null) {
+            AnnotationTarget field = AnnotationTarget.ofField(className, id.name());
+            annotations.add(new PlannedAnnotation(field, AnnotationSpec.of(ID)));
+            if (id.generator() != null) {
+                for (AnnotationSpec spec : IdGeneratorRules.annotations(className, id.generator())) {
+                    annotations.add(new PlannedAnnotation(field, spec));
+                }
+            }
+            addColumn(annotations, field, id.column());
+        }
+
+        HibernateModel.Version version = entity.version();
+        if (version != null && version.name() != null) {
+            AnnotationTarget field = AnnotationTarget.ofField(className, version.name());
+            annotations.add(new PlannedAnnotation(field, AnnotationSpec.of(VERSION)));
+            addColumn(annotations, field, version.column());
+        }
+
+        for (HibernateModel.Property property : entity.properties()) {
+            if (property.name() == null) continue;
+
+            AnnotationTarget field = AnnotationTarget.ofField(className, property.name());
+            if (property.formula() != null) {
+                // A derived property is read-only and has no column of its own
+                annotations.add(new PlannedAnnotation(field, AnnotationSpec.builder(FORMULA)
+                        .string("value", property.formula().trim())
+                        .build()));
+            } else {
+                addColumn(annotations, field, property.column());
+            }
+            if (isTrue(property.lazy())) {
+                annotations.add(new PlannedAnnotation(field, AnnotationSpec.builder(BASIC)
+                        .enumValue("fetch", FETCH_TYPE, "LAZY")
+                        .build()));
+            }
+            // Handle temporal types for Date fields
+            if (property.type() != null && property.type().contains("timestamp")) {
+                annotations.add(new PlannedAnnotation(field, AnnotationSpec.builder(TEMPORAL)
+                        .enumValue("value", JPA + "TemporalType", "TIMESTAMP")
+                        .build()));
+            }
+        }
+
+        for (HibernateModel.Relation relation : entity.relations()) {
+            if (relation.name() == null) continue;
+            addRelation(annotations, AnnotationTarget.ofField(className, relation.name()), relation);
+        }
+
+        for (HibernateModel.Collection collection : entity.collections()) {
+            if (collection.name() == null) continue;
+            addCollection(annotations, AnnotationTarget.ofField(className, collection.name()), collection,
+                    inverseMappedBy(entity, collection, entities));
+        }
+
+        if (entity.compositeId() != null) {
+            addCompositeId(annotations, className, entity.compositeId());
+        }
+        return annotations;
+    }
+
+    /**
+     * Hibernate's annotations for the class attributes that cut UPDATE payloads and dirty checks.
+     * Attributes left at Hibernate's defaults add nothing.
+     */
+    static List<AnnotationSpec> classOptions(HibernateModel.ClassOptions options) {
+        List<AnnotationSpec> specs = new ArrayList<>();
+        if (isTrue(options.dynamicUpdate())) {
+            specs.add(AnnotationSpec.of(DYNAMIC_UPDATE));
+        }
+        if (isTrue(options.dynamicInsert())) {
+            specs.add(AnnotationSpec.of(DYNAMIC_INSERT));
+        }
+        // Immutable entities are never dirty checked or updated
+        if ("false".equalsIgnoreCase(trim(options.mutable()))) {
+            specs.add(AnnotationSpec.of(IMMUTABLE));
+        }
+        if (isTrue(options.selectBeforeUpdate())) {
+            specs.add(AnnotationSpec.of(SELECT_BEFORE_UPDATE));
+        }
+
+        String optimisticLock = trim(options.optimisticLock());
+        if (optimisticLock != null) {
+            String type = switch (optimisticLock.toLowerCase(Locale.ROOT)) {
+                case "none" -> "NONE";
+                case "dirty" -> "DIRTY";
+                case "all" -> "ALL";
+                default -> null;
+            };
+            if (type != null) {
+                specs.add(AnnotationSpec.builder(OPTIMISTIC_LOCKING)
+                        .enumValue("type", HIBERNATE + "OptimisticLockType", type)
+                        .build());
+            }
+        }
+        if ("explicit".equalsIgnoreCase(trim(options.polymorphism()))) {
+            specs.add(AnnotationSpec.builder(POLYMORPHISM)
+                    .enumValue("type", HIBERNATE + "PolymorphismType", "EXPLICIT")
+                    .build());
+        }
+        return specs;
+    }
+
+    private static boolean isTrue(String flag) {
+        return "true".equalsIgnoreCase(trim(flag));
+    }
+
+    private static String trim(String value) {
+        return value != null ? value.trim() : null;
+    }
+
+    /**
+     * {@code @Table} with name, schema, catalog and the indexes and unique constraints declared
+     * on the properties and many-to-ones, or null if the class declares none of them.
+     */
+    public static AnnotationSpec table(HibernateModel.Entity entity) {
+        AnnotationSpec.Builder table = AnnotationSpec.builder(TABLE);
+        if (entity.table() != null) {
+            table.string("name", entity.table());
+        }
+        if (entity.schema() != null) {
+            table.string("schema", entity.schema());
+        }
+        if (entity.catalog() != null) {
+            table.string("catalog", entity.catalog());
+        }
+
+        // Properties sharing an index or unique-key name make up one multi-column index or constraint
+        Map<String, List<String>> indexes = new LinkedHashMap<>();
+        Map<String, List<String>> uniqueKeys = new LinkedHashMap<>();
+        for (HibernateModel.Property property : entity.properties()) {
+            if (property.name() == null || property.formula() != null) continue;
+
+            String column = property.column().name() != null ? property.column().name() : property.name();
+            addColumnToKeys(indexes, property.index(), column);
+            addColumnToKeys(uniqueKeys, property.uniqueKey(), column);
+        }
+        for (HibernateModel.Relation relation : entity.relations()) {
+            if (relation.kind() != HibernateModel.RelationKind.MANY_TO_ONE || relation.name() == null) continue;
+
+            String column = relation.column() != null ? relation.column() : relation.name();
+            addColumnToKeys(indexes, relation.index(), column);
+            addColumnToKeys(uniqueKeys, relation.uniqueKey(), column);
+        }
+        if (!indexes.isEmpty()) {
+            List<AnnotationSpec> specs = new ArrayList<>(indexes.size());
+            indexes.forEach((name, columns) -> specs.add(AnnotationSpec.builder(INDEX)
+                    .string("name", name)
+                    .string("columnList", String.join(", ", columns))
+                    .build()));
+            table.annotations("indexes", specs);
+        }
+        if (!uniqueKeys.isEmpty()) {
+            List<AnnotationSpec> specs = new ArrayList<>(uniqueKeys.size());
+            uniqueKeys.forEach((name, columns) -> {
+                List<String> columnNames = new ArrayList<>(columns.size());
+                for (String column : columns) {
+                    columnNames.add(AnnotationSpec.quote(column));
+                }
+                specs.add(AnnotationSpec.builder(UNIQUE_CONSTRAINT)
+                        .string("name", name)
+                        .raw("columnNames", "{" + String.join(", ", columnNames) + "}")
+                        .build());
+            });
+            table.annotations("uniqueConstraints", specs);
+        }
+        return table.isEmpty() ? null : table.build();
+    }
+
+    private static void addColumnToKeys(Map<String, List<String>> keys, String names, String column) {
+        if (names == null) return;
+
+        for (String name : names.split(",")) {
+            if (!name.isBlank()) {
+                keys.computeIfAbsent(name.trim(), key -> new ArrayList<>()).add(column);
+            }
+        }
+    }
+
+    /**
+     * {@code @Column} for an id or property, or null if it sets nothing.
+     */
+    public static AnnotationSpec column(HibernateModel.Column column) {
+        AnnotationSpec.Builder spec = AnnotationSpec.builder(COLUMN);
+        if (column.name() != null) {
+            spec.string("name", column.name());
+        }
+        if (column.length() != null) {
+            spec.raw("length", column.length());
+        }
+        if (column.notNull() != null) {
+            spec.raw("nullable", String.valueOf(!Boolean.parseBoolean(column.notNull())));
+        }
+        if (column.unique() != null) {
+            spec.raw("unique", column.unique());
+        }
+        if (column.precision() != null) {
+            spec.raw("precision", column.precision().trim());
+        }
+        if (column.scale() != null) {
+            spec.raw("scale", column.scale().trim());
+        }
+        // Only the non-default false is worth writing
+        if ("false".equalsIgnoreCase(trim(column.insert()))) {
+            spec.raw("insertable", "false");
+        }
+        if ("false".equalsIgnoreCase(trim(column.update()))) {
+            spec.raw("updatable", "false");
+        }
+        return spec.isEmpty() ? null : spec.build();
+    }
+
+    /**
+     * {@code @JoinColumn} of a join table.
+     */
+    public static AnnotationSpec joinColumn(HibernateModel.JoinColumn joinColumn) {
+        AnnotationSpec.Builder spec = AnnotationSpec.builder(JOIN_COLUMN);
+        if (joinColumn.name() != null) {
+            spec.string("name", joinColumn.name());
+        }
+        if (joinColumn.referencedColumnName() != null) {
+            spec.string("referencedColumnName", joinColumn.referencedColumnName());
+        }
+        return spec.build();
+    }
+
+    private static void addColumn(List<PlannedAnnotation> annotations, AnnotationTarget field,
+                                  HibernateModel.Column column) {
+        AnnotationSpec spec = column(column);
+        if (spec != null) {
+            annotations.add(new PlannedAnnotation(field, spec));
+        }
+    }
+
+    private static void addRelation(List<PlannedAnnotation> annotations, AnnotationTarget field,
+                                    HibernateModel.Relation relation) {
+        String annotation = switch (relation.kind()) {
+            case MANY_TO_ONE -> MANY_TO_ONE;
+            case ONE_TO_MANY -> ONE_TO_MANY;
+            case MANY_TO_MANY -> MANY_TO_MANY;
+        };
+        boolean manyToOne = relation.kind() == HibernateModel.RelationKind.MANY_TO_ONE;
+        AnnotationSpec.Builder spec = AnnotationSpec.builder(annotation);
+        if (!manyToOne && relation.mappedBy() != null) {
+            spec.string("mappedBy", relation.mappedBy());
+        }
+        String fetchType = fetchType(relation.fetch(), relation.lazy(), manyToOne);
+        if (fetchType != null) {
+            spec.enumValue("fetch", FETCH_TYPE, fetchType);
+        }
+        annotations.add(new PlannedAnnotation(field, spec.build()));
+        addFetchMode(annotations, field, relation.fetch());
+
+        if (relation.kind() == HibernateModel.RelationKind.MANY_TO_ONE && relation.column() != null) {
+            annotations.add(new PlannedAnnotation(field,
+                    AnnotationSpec.builder(JOIN_COLUMN).string("name", relation.column()).build()));
+        }
+        if (relation.kind() == HibernateModel.RelationKind.MANY_TO_MANY && relation.joinTable() != null) {
+            annotations.add(new PlannedAnnotation(field, joinTable(relation.joinTable())));
+        }
+    }
+
+    /**
+     * The JPA fetch type matching the Hibernate settings, or null where the JPA default matches.
+     * Hibernate loads many-to-one lazily unless told otherwise while JPA loads it eagerly, so
+     * those get an explicit {@code LAZY}. The older {@code fetch="lazy|eager"} form is kept.
+     */
+    static String fetchType(String fetch, String lazy, boolean singleValued) {
+        if (fetch != null) {
+            String value = fetch.toLowerCase(Locale.ROOT);
+            if (value.equals("lazy") || value.equals("eager")) return value.toUpperCase(Locale.ROOT);
+            // A join fetch always loads the association with its owner
+            if (value.equals("join")) return "EAGER";
+        }
+        if ("false".equalsIgnoreCase(lazy)) return "EAGER";
+        return singleValued ? "LAZY" : null;
+    }
+
+    /**
+     * {@code @Fetch} for the join and subselect fetch modes, select being the default.
+     */
+    private static void addFetchMode(List<PlannedAnnotation> annotations, AnnotationTarget field, String fetch) {
+        if (fetch == null) return;
+
+        String mode = switch (fetch.toLowerCase(Locale.ROOT)) {
+            case "join" -> "JOIN";
+            case "subselect" -> "SUBSELECT";
+            default -> null;
+        };
+        if (mode != null) {
+            annotations.add(new PlannedAnnotation(field, AnnotationSpec.builder(FETCH)
+                    .enumValue("value", HIBERNATE + "FetchMode", mode)
+                    .build()));
+        }
+    }
+
+    private static AnnotationSpec batchSize(String size) {
+        return AnnotationSpec.builder(BATCH_SIZE).raw("size", size.trim()).build();
+    }
+
+    /**
+     * The field of the owning side an inverse association without {@code mapped-by} is mapped by:
+     * the element class's many-to-one on the key column, or its non-inverse many-to-many over the
+     * same table. Null if the collection is not inverse or the owning side cannot be found.
+     */
+    static String inverseMappedBy(HibernateModel.Entity entity, HibernateModel.Collection collection,
+                                  Function<String, HibernateModel.Entity> entities) {
+        if (collection.mappedBy() != null || !collection.inverse() || collection.elementClass() == null) return null;
+
+        HibernateModel.Entity owner = collection.elementClass().equals(entity.className())
+                ? entity
+                : entities.apply(collection.elementClass());
+        if (owner == null) return null;
+
+        if (collection.elementKind() == HibernateModel.ElementKind.ONE_TO_MANY) {
+            if (collection.keyColumn() == null) return null;
+            for (HibernateModel.Relation relation : owner.relations()) {
+                if (relation.kind() == HibernateModel.RelationKind.MANY_TO_ONE
+                        && collection.keyColumn().equalsIgnoreCase(relation.column())) {
+                    return relation.name();
+                }
+            }
+        } else if (collection.elementKind() == HibernateModel.ElementKind.MANY_TO_MANY) {
+            if (collection.table() == null) return null;
+            for (HibernateModel.Collection other : owner.collections()) {
+                if (other != collection
+                        && other.elementKind() == HibernateModel.ElementKind.MANY_TO_MANY
+                        && !other.inverse()
+                        && collection.table().equalsIgnoreCase(other.table())
+                        && entity.className().equals(other.elementClass())
+                        && sameColumn(other.keyColumn(), collection.elementColumn())) {
+                    return other.name();
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean sameColumn(String column, String otherColumn) {
+        return column == null || otherColumn == null || column.equalsIgnoreCase(otherColumn);
+    }
+
+    private static void addCollection(List<PlannedAnnotation> annotations, AnnotationTarget field,
+                                      HibernateModel.Collection collection, String inferredMappedBy) {
+        HibernateModel.ElementKind elementKind = collection.elementKind();
+        if (elementKind == null) return;
+        String mappedBy = collection.mappedBy() != null ? collection.mappedBy() : inferredMappedBy;
+
+        // The association or element collection itself
+        AnnotationSpec.Builder spec = AnnotationSpec.builder(switch (elementKind) {
+            case ONE_TO_MANY -> ONE_TO_MANY;
+            case MANY_TO_MANY -> MANY_TO_MANY;
+            case ELEMENT -> ELEMENT_COLLECTION;
+        });
+        if (elementKind != HibernateModel.ElementKind.ELEMENT && mappedBy != null) {
+            spec.string("mappedBy", mappedBy);
+        }
+        String fetchType = fetchType(collection.fetch(), collection.lazy(), false);
+        if (fetchType != null) {
+            spec.enumValue("fetch", FETCH_TYPE, fetchType);
+        }
+        annotations.add(new PlannedAnnotation(field, spec.build()));
+
+        // The owning side maps the key, the inverse side is mapped by the other end. An inverse
+        // side whose owner is unknown maps the key itself: a read-only join column, or the join
+        // table, so JPA does not default to a join table that does not exist.
+        String keyColumn = collection.keyColumn();
+        switch (elementKind) {
+            case ONE_TO_MANY -> {
+                if (mappedBy == null && keyColumn != null) {
+                    AnnotationSpec.Builder joinColumn = AnnotationSpec.builder(JOIN_COLUMN).string("name", keyColumn);
+                    if (collection.inverse()) {
+                        joinColumn.raw("insertable", "false").raw("updatable", "false");
+                    }
+                    annotations.add(new PlannedAnnotation(field, joinColumn.build()));
+                }
+            }
+            case MANY_TO_MANY -> {
+                if (mappedBy == null && collection.table() != null) {
+                    annotations.add(new PlannedAnnotation(field, collectionTable(JOIN_TABLE, collection)));
+                }
+            }
+            case ELEMENT -> {
+                if (collection.table() != null) {
+                    annotations.add(new PlannedAnnotation(field, collectionTable(COLLECTION_TABLE, collection)));
+                }
+                if (collection.elementColumn() != null) {
+                    annotations.add(new PlannedAnnotation(field,
+                            AnnotationSpec.builder(COLUMN).string("name", collection.elementColumn()).build()));
+                }
+            }
+        }
+
+        if (collection.indexColumn() != null) {
+            annotations.add(new PlannedAnnotation(field,
+                    AnnotationSpec.builder(ORDER_COLUMN).string("name", collection.indexColumn()).build()));
+        }
+        if (collection.mapKeyColumn() != null) {
+            annotations.add(new PlannedAnnotation(field,
+                    AnnotationSpec.builder(MAP_KEY_COLUMN).string("name", collection.mapKeyColumn()).build()));
+        }
+
+        // Query tuning: how and how many collections are loaded at once
+        addFetchMode(annotations, field, collection.fetch());
+        if ("extra".equalsIgnoreCase(collection.lazy())) {
+            annotations.add(new PlannedAnnotation(field, AnnotationSpec.builder(LAZY_COLLECTION)
+                    .enumValue("value", HIBERNATE + "LazyCollectionOption", "EXTRA")
+                    .build()));
+        }
+        if (collection.batchSize() != null) {
+            annotations.add(new PlannedAnnotation(field, batchSize(collection.batchSize())));
+        }
+        AnnotationSpec cache = cache(collection.cache());
+        if (cache != null) {
+            annotations.add(new PlannedAnnotation(field, cache));
+        }
+    }
+
+    /**
+     * Hibernate's {@code @Cache} for a {@code <cache>}, or null if there is none or its usage is
+     * unknown. Lazy properties are cached unless the cache includes only non-lazy ones.
+     */
+    static AnnotationSpec cache(HibernateModel.Cache cache) {
+        if (cache == null || cache.usage() == null) return null;
+
+        String strategy = switch (cache.usage().trim().toLowerCase(Locale.ROOT)) {
+            case "read-only" -> "READ_ONLY";
+            case "read-write" -> "READ_WRITE";
+            case "nonstrict-read-write" -> "NONSTRICT_READ_WRITE";
+            case "transactional" -> "TRANSACTIONAL";
+            default -> null;
+        };
+        if (strategy == null) return null;
+
+        AnnotationSpec.Builder spec = AnnotationSpec.builder(CACHE)
+                .enumValue("usage", HIBERNATE + "CacheConcurrencyStrategy", strategy);
+        if (cache.region() != null) {
+            spec.string("region", cache.region());
+        }
+        if ("non-lazy".equalsIgnoreCase(cache.include())) {
+            spec.raw("includeLazy", "false");
+        }
+        return spec.build();
+    }
+
+    /**
+     * {@code @JoinTable} or {@code @CollectionTable} of a collection: its table, the key as join
+     * column and, for many-to-many, the element column as inverse join column.
+     */
+    private static AnnotationSpec collectionTable(String annotation, HibernateModel.Collection collection) {
+        AnnotationSpec.Builder spec = AnnotationSpec.builder(annotation).string("name", collection.table());
+        if (collection.keyColumn() != null) {
+            spec.annotations("joinColumns", List.of(
+                    AnnotationSpec.builder(JOIN_COLUMN).string("name", collection.keyColumn()).build()));
+        }
+        if (annotation.equals(JOIN_TABLE) && collection.elementColumn() != null) {
+            spec.annotations("inverseJoinColumns", List.of(
+                    AnnotationSpec.builder(JOIN_COLUMN).string("name", collection.elementColumn()).build()));
+        }
+        return spec.build();
+    }
+
+    private static AnnotationSpec joinTable(HibernateModel.JoinTable joinTable) {
+        AnnotationSpec.Builder spec = AnnotationSpec.builder(JOIN_TABLE);
+        if (joinTable.name() != null) {
+            spec.string("name", joinTable.name());
+        }
+        if (!joinTable.joinColumns().isEmpty()) {
+            spec.annotations("joinColumns",
+                    joinTable.joinColumns().stream().map(HibernateAnnotationRules::joinColumn).toList());
+        }
+        return spec.build();
+    }
+
+    private static void addCompositeId(List<PlannedAnnotation> annotations, String className,
+                                       HibernateModel.CompositeId compositeId) {
+        if (compositeId.isEmbedded()) {
+            // @EmbeddedId on the entity's key field, the key's mapping on the embeddable class
+            if (compositeId.name() == null) return;
+            annotations.add(new PlannedAnnotation(AnnotationTarget.ofField(className, compositeId.name()),
+                    AnnotationSpec.of(EMBEDDED_ID)));
+
+            String keyClass = compositeId.embeddedClass();
+            annotations.add(new PlannedAnnotation(AnnotationTarget.ofClass(keyClass), AnnotationSpec.of(EMBEDDABLE)));
+            addKeyFields(annotations, keyClass, compositeId, false);
+        } else {
+            // @IdClass on the entity, the key properties are the entity's own fields
+            if (compositeId.idClass() != null) {
+                annotations.add(new PlannedAnnotation(AnnotationTarget.ofClass(className),
+                        AnnotationSpec.builder(ID_CLASS).classLiteral("value", compositeId.idClass()).build()));
+            }
+            addKeyFields(annotations, className, compositeId, true);
+        }
+    }
+
+    private static void addKeyFields(List<PlannedAnnotation> annotations, String className,
+                                     HibernateModel.CompositeId compositeId, boolean idClass) {
+        for (HibernateModel.KeyProperty keyProperty : compositeId.keyProperties()) {
+            if (keyProperty.name() == null) continue;
+
+            AnnotationTarget field = AnnotationTarget.ofField(className, keyProperty.name());
+            if (idClass) {
+                annotations.add(new PlannedAnnotation(field, AnnotationSpec.of(ID)));
+            }
+            AnnotationSpec.Builder column = AnnotationSpec.builder(COLUMN);
+            if (keyProperty.column() != null) {
+                column.string("name", keyProperty.column());
+            }
+            // The IdClass strategy never carried the length over
+            if (!idClass && keyProperty.length() != null) {
+                column.raw("length", keyProperty.length());
+            }
+            annotations.add(new PlannedAnnotation(field, column.build()));
+        }
+
+        for (HibernateModel.KeyManyToOne keyManyToOne : compositeId.keyManyToOnes()) {
+            if (keyManyToOne.name() == null) continue;
+
+            AnnotationTarget field = AnnotationTarget.ofField(className, keyManyToOne.name());
+            if (idClass) {
+                annotations.add(new PlannedAnnotation(field, AnnotationSpec.of(ID)));
+            }
+            annotations.add(new PlannedAnnotation(field, AnnotationSpec.of(MANY_TO_ONE)));
+            if (keyManyToOne.column() != null) {
+                annotations.add(new PlannedAnnotation(field,
+                        AnnotationSpec.builder(JOIN_COLUMN).string("name", keyManyToOne.column()).build()));
+            }
+        }
+    }
+}
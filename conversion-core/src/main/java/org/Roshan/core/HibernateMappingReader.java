@@ -0,0 +1,244 @@
+package org.Roshan.core;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads {@code hibernate-mapping} documents into the {@link HibernateModel}.
+ */
+public final class HibernateMappingReader {
+    public static final String HIBERNATE_MAPPING_TAG = "hibernate-mapping";
+    public static final String CLASS_TAG = "class";
+    private static final String NAME = "name";
+    private static final String COLUMN = "column";
+
+    private HibernateMappingReader() {
+    }
+
+    /**
+     * Reads every class of a mapping document.
+     */
+    public static List<HibernateModel.Entity> read(XmlElement root) {
+        if (!HIBERNATE_MAPPING_TAG.equals(root.name())) {
+            throw new IllegalArgumentException("Not a Hibernate mapping: <" + root.name() + ">");
+        }
+
+        String packageName = root.attribute("package");
+        List<HibernateModel.Entity> entities = new ArrayList<>();
+        for (XmlElement classElement : root.children(CLASS_TAG)) {
+            HibernateModel.Entity entity = readEntity(classElement, packageName);
+            if (entity != null) {
+                entities.add(entity);
+            }
+        }
+        return entities;
+    }
+
+    /**
+     * Reads one {@code <class>} element.
+     *
+     * @param packageName The mapping's {@code package} attribute, or null
+     * @return The entity, or null if the class has no name
+     */
+    public static HibernateModel.Entity readEntity(XmlElement classElement, String packageName) {
+        String className = qualify(classElement.attribute(NAME), packageName);
+        if (className == null) return null;
+
+        HibernateModel.Id id = null;
+        HibernateModel.Version version = null;
+        HibernateModel.CompositeId compositeId = null;
+        List<HibernateModel.Property> properties = new ArrayList<>();
+        List<HibernateModel.Relation> relations = new ArrayList<>();
+        List<HibernateModel.Collection> collections = new ArrayList<>();
+        for (XmlElement element : classElement.children()) {
+            switch (element.name()) {
+                case "id" -> id = new HibernateModel.Id(element.attribute(NAME), readColumn(element),
+                        readGenerator(element));
+                case "version" -> version = new HibernateModel.Version(element.attribute(NAME), readColumn(element), false);
+                case "timestamp" -> version = new HibernateModel.Version(element.attribute(NAME), readColumn(element), true);
+                case "property" -> properties.add(readProperty(element));
+                case "many-to-one" -> relations.add(readRelation(HibernateModel.RelationKind.MANY_TO_ONE, element));
+                case "one-to-many" -> relations.add(readRelation(HibernateModel.RelationKind.ONE_TO_MANY, element));
+                case "many-to-many" -> relations.add(readRelation(HibernateModel.RelationKind.MANY_TO_MANY, element));
+                case "composite-id" -> compositeId = readCompositeId(element, packageName);
+                case "set" -> collections.add(readCollection(HibernateModel.CollectionKind.SET, element, packageName));
+                case "bag" -> collections.add(readCollection(HibernateModel.CollectionKind.BAG, element, packageName));
+                case "list" -> collections.add(readCollection(HibernateModel.CollectionKind.LIST, element, packageName));
+                case "map" -> collections.add(readCollection(HibernateModel.CollectionKind.MAP, element, packageName));
+                case "array" -> collections.add(readCollection(HibernateModel.CollectionKind.ARRAY, element, packageName));
+                default -> {
+                }
+            }
+        }
+
+        return new HibernateModel.Entity(className, classElement.attribute("table"),
+                classElement.attribute("schema"), classElement.attribute("catalog"),
+                classElement.attribute("batch-size"), readCache(classElement),
+                new HibernateModel.ClassOptions(classElement.attribute("dynamic-update"),
+                        classElement.attribute("dynamic-insert"), classElement.attribute("mutable"),
+                        classElement.attribute("select-before-update"), classElement.attribute("optimistic-lock"),
+                        classElement.attribute("polymorphism")),
+                id, version, compositeId, properties, relations, collections);
+    }
+
+    /**
+     * The column of an element, from its attributes or a nested {@code <column>}. Insertability
+     * and updatability always come from the element itself.
+     */
+    private static HibernateModel.Column readColumn(XmlElement element) {
+        return new HibernateModel.Column(getColumnName(element), getColumnAttribute(element, "length"),
+                getColumnAttribute(element, "not-null"), getColumnAttribute(element, "unique"),
+                getColumnAttribute(element, "precision"), getColumnAttribute(element, "scale"),
+                element.attribute("insert"), element.attribute("update"));
+    }
+
+    private static HibernateModel.Property readProperty(XmlElement element) {
+        // The formula may also be written as a nested <formula> element
+        String formula = element.attribute("formula");
+        if (formula == null && element.child("formula") != null) {
+            formula = element.child("formula").text();
+        }
+        return new HibernateModel.Property(element.attribute(NAME), readColumn(element), element.attribute("type"),
+                element.attribute("lazy"), formula, getColumnAttribute(element, "index"),
+                getColumnAttribute(element, "unique-key"));
+    }
+
+    private static HibernateModel.Generator readGenerator(XmlElement idElement) {
+        XmlElement generator = idElement.child("generator");
+        if (generator == null) {
+            String generatorClass = idElement.attribute("generator-class");
+            return generatorClass != null ? new HibernateModel.Generator(generatorClass, Map.of()) : null;
+        }
+
+        Map<String, String> params = new LinkedHashMap<>();
+        for (XmlElement param : generator.children("param")) {
+            if (param.attribute(NAME) != null) {
+                params.put(param.attribute(NAME), param.text());
+            }
+        }
+        return new HibernateModel.Generator(generator.attribute(CLASS_TAG), params);
+    }
+
+    private static HibernateModel.Relation readRelation(HibernateModel.RelationKind kind, XmlElement element) {
+        HibernateModel.JoinTable joinTable = null;
+        XmlElement joinTableElement = element.child("join-table");
+        if (joinTableElement != null) {
+            List<HibernateModel.JoinColumn> joinColumns = new ArrayList<>();
+            for (XmlElement joinColumn : joinTableElement.children("join-column")) {
+                joinColumns.add(new HibernateModel.JoinColumn(joinColumn.attribute(NAME),
+                        joinColumn.attribute("referenced-column-name")));
+            }
+            joinTable = new HibernateModel.JoinTable(joinTableElement.attribute(NAME), joinColumns);
+        }
+
+        return new HibernateModel.Relation(kind, element.attribute(NAME), getColumnName(element),
+                element.attribute("fetch"), element.attribute("lazy"), element.attribute("mapped-by"), joinTable,
+                getColumnAttribute(element, "index"), getColumnAttribute(element, "unique-key"));
+    }
+
+    private static HibernateModel.Collection readCollection(HibernateModel.CollectionKind kind, XmlElement element,
+                                                            String packageName) {
+        XmlElement key = element.child("key");
+
+        HibernateModel.ElementKind elementKind = null;
+        String elementClass = null;
+        String elementColumn = null;
+        XmlElement oneToMany = element.child("one-to-many");
+        XmlElement manyToMany = element.child("many-to-many");
+        XmlElement value = element.child("element");
+        if (oneToMany != null) {
+            elementKind = HibernateModel.ElementKind.ONE_TO_MANY;
+            elementClass = qualify(oneToMany.attribute(CLASS_TAG), packageName);
+        } else if (manyToMany != null) {
+            elementKind = HibernateModel.ElementKind.MANY_TO_MANY;
+            elementClass = qualify(manyToMany.attribute(CLASS_TAG), packageName);
+            elementColumn = getColumnName(manyToMany);
+        } else if (value != null) {
+            elementKind = HibernateModel.ElementKind.ELEMENT;
+            elementColumn = getColumnName(value);
+        }
+
+        // <list-index> since Hibernate 3, <index> before, both also used by arrays
+        XmlElement index = element.child("list-index");
+        if (index == null) {
+            index = element.child("index");
+        }
+        XmlElement mapKey = element.child("map-key");
+
+        return new HibernateModel.Collection(kind, element.attribute(NAME), element.attribute("table"),
+                key != null ? getColumnName(key) : null,
+                elementKind, elementClass, elementColumn,
+                Boolean.parseBoolean(element.attribute("inverse")), element.attribute("mapped-by"),
+                element.attribute("lazy"), element.attribute("fetch"), element.attribute("batch-size"),
+                kind == HibernateModel.CollectionKind.MAP || index == null ? null : getColumnName(index),
+                kind == HibernateModel.CollectionKind.MAP && mapKey != null ? getColumnName(mapKey) : null,
+                readCache(element));
+    }
+
+    private static HibernateModel.Cache readCache(XmlElement element) {
+        XmlElement cache = element.child("cache");
+        if (cache == null) return null;
+        return new HibernateModel.Cache(cache.attribute("usage"), cache.attribute("region"), cache.attribute("include"));
+    }
+
+    /**
+     * The column of an element, from its {@code column} attribute or a nested {@code <column name>}.
+     */
+    private static String getColumnName(XmlElement element) {
+        String column = element.attribute(COLUMN);
+        if (column != null) return column;
+
+        XmlElement columnElement = element.child(COLUMN);
+        return columnElement != null ? columnElement.attribute(NAME) : null;
+    }
+
+    /**
+     * A column attribute such as {@code length} or {@code index}, written on the element itself or
+     * on its nested {@code <column>}.
+     */
+    private static String getColumnAttribute(XmlElement element, String attribute) {
+        String value = element.attribute(attribute);
+        if (value != null) return value;
+
+        XmlElement columnElement = element.child(COLUMN);
+        return columnElement != null ? columnElement.attribute(attribute) : null;
+    }
+
+    private static HibernateModel.CompositeId readCompositeId(XmlElement element, String packageName) {
+        // The embedded strategy nests the key's mapping in a <class>, the IdClass strategy does not
+        XmlElement keyClass = element.child(CLASS_TAG);
+        XmlElement keyElement = keyClass != null ? keyClass : element;
+
+        List<HibernateModel.KeyProperty> keyProperties = new ArrayList<>();
+        for (XmlElement keyProperty : keyElement.children("key-property")) {
+            keyProperties.add(new HibernateModel.KeyProperty(keyProperty.attribute(NAME),
+                    keyProperty.attribute(COLUMN), keyProperty.attribute("length")));
+        }
+        List<HibernateModel.KeyManyToOne> keyManyToOnes = new ArrayList<>();
+        for (XmlElement keyManyToOne : keyElement.children("key-many-to-one")) {
+            keyManyToOnes.add(new HibernateModel.KeyManyToOne(keyManyToOne.attribute(NAME),
+                    keyManyToOne.attribute(COLUMN)));
+        }
+
+        String embeddedClass = keyClass != null ? qualify(keyClass.attribute(NAME), packageName) : null;
+        return new HibernateModel.CompositeId(element.attribute(NAME), element.attribute(CLASS_TAG),
+                embeddedClass, keyProperties, keyManyToOnes);
+    }
+
+    /**
+     * Applies the mapping's package to an unqualified class name.
+     *
+     * @return The qualified name, or null if the name is missing or blank
+     */
+    public static String qualify(String className, String packageName) {
+        if (className == null || className.isBlank()) return null;
+
+        className = className.trim();
+        if (packageName != null && !packageName.isBlank() && className.indexOf('.') < 0) {
+            return packageName.trim() + "." + className;
+        }
+        return className;
+    }
+}
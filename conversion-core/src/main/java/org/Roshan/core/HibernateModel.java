@@ -0,0 +1,254 @@
+package org.Roshan.core;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable model of a {@code hibernate-mapping} document, as read by
+ * {@link HibernateMappingReader}. Attribute values are kept as written; absent attributes are null.
+ */
+public final class HibernateModel {
+
+    private HibernateModel() {
+    }
+
+    /**
+     * A mapped {@code <class>}.
+     *
+     * @param className   Qualified class name, with the mapping's package applied
+     * @param table       Table name
+     * @param schema      Schema name
+     * @param catalog     Catalog name
+     * @param batchSize   The class's {@code batch-size}
+     * @param cache       The class's second-level cache, null if not cached
+     * @param options     The class's update, locking and polymorphism settings
+     * @param id          The simple id, null if the class has none
+     * @param version     The version or timestamp property, null if the class has none
+     * @param compositeId The composite id, null if the class has none
+     * @param properties  The {@code <property>} mappings
+     * @param relations   The many-to-one, one-to-many and many-to-many mappings
+     * @param collections The set, bag, list, map and array mappings
+     */
+    public record Entity(String className, String table, String schema, String catalog, String batchSize,
+                         Cache cache, ClassOptions options, Id id, Version version, CompositeId compositeId,
+                         List<Property> properties, List<Relation> relations, List<Collection> collections) {
+        public Entity {
+            properties = List.copyOf(properties);
+            relations = List.copyOf(relations);
+            collections = List.copyOf(collections);
+        }
+    }
+
+    /**
+     * Class attributes tuning how instances are written and checked, as written.
+     *
+     * @param dynamicUpdate      The {@code dynamic-update} flag
+     * @param dynamicInsert      The {@code dynamic-insert} flag
+     * @param mutable            The {@code mutable} flag
+     * @param selectBeforeUpdate The {@code select-before-update} flag
+     * @param optimisticLock     The {@code optimistic-lock} mode, e.g. {@code dirty}
+     * @param polymorphism       The {@code polymorphism} mode, e.g. {@code explicit}
+     */
+    public record ClassOptions(String dynamicUpdate, String dynamicInsert, String mutable, String selectBeforeUpdate,
+                               String optimisticLock, String polymorphism) {
+    }
+
+    /**
+     * A {@code <version>} or {@code <timestamp>}.
+     *
+     * @param name      Field name
+     * @param column    Column details
+     * @param timestamp Whether it came from a {@code <timestamp>}
+     */
+    public record Version(String name, Column column, boolean timestamp) {
+    }
+
+    /**
+     * Column details of an id or property.
+     *
+     * @param name      Column name, null if the attribute is absent
+     * @param length    Column length
+     * @param notNull   The {@code not-null} flag
+     * @param unique    The {@code unique} flag
+     * @param precision Numeric precision
+     * @param scale     Numeric scale
+     * @param insert    The {@code insert} flag
+     * @param update    The {@code update} flag
+     */
+    public record Column(String name, String length, String notNull, String unique,
+                         String precision, String scale, String insert, String update) {
+    }
+
+    /**
+     * An {@code <id>}.
+     *
+     * @param name      Field name
+     * @param column    Column details
+     * @param generator The id generator, null if none is declared
+     */
+    public record Id(String name, Column column, Generator generator) {
+    }
+
+    /**
+     * A {@code <generator>}, or the short {@code generator-class} attribute.
+     *
+     * @param className Generator class or short name as written, e.g. {@code seqhilo}
+     * @param params    The {@code <param>} values by name, in document order
+     */
+    public record Generator(String className, Map<String, String> params) {
+        public Generator {
+            params = Collections.unmodifiableMap(new LinkedHashMap<>(params));
+        }
+
+        public String param(String name) {
+            return params.get(name);
+        }
+    }
+
+    /**
+     * A {@code <property>}.
+     *
+     * @param name      Field name
+     * @param column    Column details
+     * @param type      Hibernate type name
+     * @param lazy      The {@code lazy} flag
+     * @param formula   SQL expression of a derived property, null for a mapped column
+     * @param index     The {@code index} of the property or its column, comma separated names
+     * @param uniqueKey The {@code unique-key} of the property or its column, comma separated names
+     */
+    public record Property(String name, Column column, String type, String lazy, String formula,
+                           String index, String uniqueKey) {
+    }
+
+    public enum RelationKind {
+        MANY_TO_ONE,
+        ONE_TO_MANY,
+        MANY_TO_MANY
+    }
+
+    /**
+     * A relation to another entity.
+     *
+     * @param kind      Which relation tag it came from
+     * @param name      Field name
+     * @param column    Join column of a many-to-one
+     * @param fetch     Fetch mode as written, e.g. {@code join}, or a fetch type like {@code lazy}
+     * @param lazy      The {@code lazy} attribute, e.g. {@code false} or {@code proxy}
+     * @param mappedBy  The {@code mapped-by} attribute of a to-many relation
+     * @param joinTable The join table of a many-to-many, null if none
+     * @param index     The {@code index} of a many-to-one or its column, comma separated names
+     * @param uniqueKey The {@code unique-key} of a many-to-one or its column, comma separated names
+     */
+    public record Relation(RelationKind kind, String name, String column, String fetch, String lazy,
+                           String mappedBy, JoinTable joinTable, String index, String uniqueKey) {
+    }
+
+    public enum CollectionKind {
+        SET,
+        BAG,
+        LIST,
+        MAP,
+        ARRAY
+    }
+
+    /**
+     * What a collection holds.
+     */
+    public enum ElementKind {
+        ONE_TO_MANY,
+        MANY_TO_MANY,
+        ELEMENT
+    }
+
+    /**
+     * A {@code <set>}, {@code <bag>}, {@code <list>}, {@code <map>} or {@code <array>}.
+     *
+     * @param kind          Which collection tag it came from
+     * @param name          Field name
+     * @param table         Collection or join table
+     * @param keyColumn     Foreign key column of the {@code <key>}
+     * @param elementKind   What the collection holds, null if it has no element mapping
+     * @param elementClass  Class of a one-to-many or many-to-many element
+     * @param elementColumn Column of a many-to-many or {@code <element>}
+     * @param inverse       The {@code inverse} flag
+     * @param mappedBy      The {@code mapped-by} attribute
+     * @param lazy          The {@code lazy} attribute, e.g. {@code extra}
+     * @param fetch         The {@code fetch} attribute, e.g. {@code subselect}
+     * @param batchSize     The {@code batch-size} attribute
+     * @param indexColumn   Index column of a list or array
+     * @param mapKeyColumn  Key column of a map
+     * @param cache         The collection's second-level cache, null if not cached
+     */
+    public record Collection(CollectionKind kind, String name, String table, String keyColumn,
+                             ElementKind elementKind, String elementClass, String elementColumn,
+                             boolean inverse, String mappedBy, String lazy, String fetch, String batchSize,
+                             String indexColumn, String mapKeyColumn, Cache cache) {
+    }
+
+    /**
+     * A {@code <cache>} of a class or collection.
+     *
+     * @param usage   Concurrency strategy, e.g. {@code read-write}
+     * @param region  Cache region
+     * @param include {@code all} or {@code non-lazy}
+     */
+    public record Cache(String usage, String region, String include) {
+    }
+
+    /**
+     * A {@code <join-table>}.
+     *
+     * @param name        Table name
+     * @param joinColumns The join columns in order
+     */
+    public record JoinTable(String name, List<JoinColumn> joinColumns) {
+        public JoinTable {
+            joinColumns = List.copyOf(joinColumns);
+        }
+    }
+
+    /**
+     * A {@code <join-column>}.
+     *
+     * @param name                 Column name
+     * @param referencedColumnName Referenced column name
+     */
+    public record JoinColumn(String name, String referencedColumnName) {
+    }
+
+    /**
+     * A {@code <composite-id>}. With a nested {@code <class>} the key is an embedded class,
+     * otherwise the key properties are fields of the entity and {@code idClass} names the id class.
+     *
+     * @param name          Field name of an embedded key
+     * @param idClass       The {@code class} attribute of the IdClass strategy
+     * @param embeddedClass Qualified name of the nested key class, null for the IdClass strategy
+     * @param keyProperties The key properties
+     * @param keyManyToOnes The key many-to-one references
+     */
+    public record CompositeId(String name, String idClass, String embeddedClass,
+                              List<KeyProperty> keyProperties, List<KeyManyToOne> keyManyToOnes) {
+        public CompositeId {
+            keyProperties = List.copyOf(keyProperties);
+            keyManyToOnes = List.copyOf(keyManyToOnes);
+        }
+
+        public boolean isEmbedded() {
+            return embeddedClass != null;
+        }
+    }
+
+    /**
+     * A {@code <key-property>}.
+     */
+    public record KeyProperty(String name, String column, String length) {
+    }
+
+    /**
+     * A {@code <key-many-to-one>}.
+     */
+    public record KeyManyToOne(String name, String column) {
+    }
+}
@@ -0,0 +1,191 @@
+package org.Roshan.core;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Translates a Hibernate id {@code <generator>} into JPA or Hibernate generator annotations.
+ * Sequence and table generators whose optimizer JPA can express become {@code @SequenceGenerator}
+ * and {@code @TableGenerator} with the sequence or table, {@code initialValue} and
+ * {@code allocationSize} from the params; everything else becomes a {@code @GenericGenerator}
+ * carrying the params, so ids keep coming from the same source in the same increments.
+ */
+public final class IdGeneratorRules {
+    public static final String SEQUENCE_GENERATOR = "jakarta.persistence.SequenceGenerator";
+    public static final String TABLE_GENERATOR = "jakarta.persistence.TableGenerator";
+    public static final String GENERIC_GENERATOR = "org.hibernate.annotations.GenericGenerator";
+    private static final String PARAMETER = "org.hibernate.annotations.Parameter";
+    private static final String GENERATION_TYPE = "jakarta.persistence.GenerationType";
+
+    private static final String SEQUENCE_STYLE_GENERATOR = "org.hibernate.id.enhanced.SequenceStyleGenerator";
+    private static final String ENHANCED_TABLE_GENERATOR = "org.hibernate.id.enhanced.TableGenerator";
+
+    // Hibernate's defaults where they differ from JPA's: one sequence for all entities, no pooling
+    private static final String DEFAULT_SEQUENCE = "hibernate_sequence";
+    private static final String DEFAULT_INCREMENT = "1";
+    // SequenceHiLoGenerator's and TableHiLoGenerator's defaults
+    private static final int DEFAULT_SEQUENCE_MAX_LO = 9;
+    private static final int DEFAULT_TABLE_MAX_LO = Short.MAX_VALUE;
+
+    private IdGeneratorRules() {
+    }
+
+    /**
+     * The annotations for the id field, empty for assigned ids.
+     *
+     * @param entityClassName Qualified name of the entity, used to name the generator
+     */
+    public static List<AnnotationSpec> annotations(String entityClassName, HibernateModel.Generator generator) {
+        if (generator.className() == null || generator.className().isBlank()) return List.of();
+
+        String generatorClass = generator.className().trim();
+        String name = getGeneratorName(entityClassName);
+        return switch (generatorClass.toLowerCase(Locale.ROOT)) {
+            case "assigned" -> List.of();
+            case "identity" -> List.of(generatedValue("IDENTITY", null));
+            case "sequence", "enhanced-sequence", "org.hibernate.id.enhanced.sequencestylegenerator" ->
+                    isJpaExpressible(generator) ? sequence(name, generator) : generic(name, SEQUENCE_STYLE_GENERATOR,
+                            withSequenceName(generator.params(), generator));
+            case "seqhilo", "hilo" -> legacyHiLo(name, generator);
+            case "table", "enhanced-table", "org.hibernate.id.enhanced.tablegenerator" ->
+                    isJpaExpressible(generator) ? table(name, generator)
+                            : generic(name, ENHANCED_TABLE_GENERATOR, generator.params());
+            // increment, native, uuid2, guid, foreign and custom generators keep their strategy
+            default -> generic(name, generatorClass, generator.params());
+        };
+    }
+
+    /**
+     * Generator names are global to the persistence unit, so every entity gets its own, named
+     * after the qualified class so same-named entities of different packages do not clash.
+     */
+    static String getGeneratorName(String entityClassName) {
+        return entityClassName + "_IdGenerator";
+    }
+
+    /**
+     * Whether JPA's generator annotations reproduce the generator: JPA pools allocations like
+     * Hibernate's default optimizer, other optimizers need Hibernate's generator, and numbers
+     * must be numbers to be written unquoted.
+     */
+    private static boolean isJpaExpressible(HibernateModel.Generator generator) {
+        String optimizer = generator.param("optimizer");
+        if (optimizer != null && !optimizer.equals("pooled") && !optimizer.equals("none")) return false;
+        return isInteger(generator.param("increment_size")) && isInteger(generator.param("initial_value"));
+    }
+
+    private static List<AnnotationSpec> sequence(String name, HibernateModel.Generator generator) {
+        AnnotationSpec.Builder spec = AnnotationSpec.builder(SEQUENCE_GENERATOR)
+                .string("name", name)
+                .string("sequenceName", getSequenceName(generator));
+        addCommonParams(spec, generator);
+        return List.of(generatedValue("SEQUENCE", name), spec.build());
+    }
+
+    private static List<AnnotationSpec> table(String name, HibernateModel.Generator generator) {
+        AnnotationSpec.Builder spec = AnnotationSpec.builder(TABLE_GENERATOR).string("name", name);
+        putIfPresent(spec, "table", generator.param("table_name"));
+        putIfPresent(spec, "pkColumnName", generator.param("segment_column_name"));
+        putIfPresent(spec, "valueColumnName", generator.param("value_column_name"));
+        putIfPresent(spec, "pkColumnValue", generator.param("segment_value"));
+        addCommonParams(spec, generator);
+        return List.of(generatedValue("TABLE", name), spec.build());
+    }
+
+    private static void addCommonParams(AnnotationSpec.Builder spec, HibernateModel.Generator generator) {
+        String initialValue = generator.param("initial_value");
+        if (initialValue != null) {
+            spec.raw("initialValue", initialValue.trim());
+        }
+        // JPA defaults to 50, which would skip ids of a sequence incremented by one
+        String incrementSize = generator.param("increment_size");
+        spec.raw("allocationSize", incrementSize != null ? incrementSize.trim() : DEFAULT_INCREMENT);
+    }
+
+    /**
+     * A hi/lo over a sequence ({@code seqhilo}) or a table ({@code hilo}, removed in Hibernate 6),
+     * which the enhanced generator reproduces with the legacy hi/lo optimizer and
+     * {@code max_lo + 1} ids per hi value. The hi values of {@code hilo} then come from a sequence
+     * instead of its {@code hibernate_unique_key} table, which has to be started at the table's
+     * {@code next_hi}.
+     */
+    private static List<AnnotationSpec> legacyHiLo(String name, HibernateModel.Generator generator) {
+        String maxLo = generator.param("max_lo");
+        if (maxLo != null && !isInteger(maxLo)) {
+            return generic(name, generator.className().trim(), generator.params());
+        }
+
+        int defaultMaxLo = generator.className().trim().equalsIgnoreCase("hilo")
+                ? DEFAULT_TABLE_MAX_LO
+                : DEFAULT_SEQUENCE_MAX_LO;
+        Map<String, String> params = new LinkedHashMap<>();
+        params.put("sequence_name", getSequenceName(generator));
+        params.put("optimizer", "legacy-hilo");
+        params.put("increment_size", String.valueOf((maxLo != null ? Integer.parseInt(maxLo.trim()) : defaultMaxLo) + 1));
+        return generic(name, SEQUENCE_STYLE_GENERATOR, params);
+    }
+
+    private static List<AnnotationSpec> generic(String name, String strategy, Map<String, String> params) {
+        AnnotationSpec.Builder spec = AnnotationSpec.builder(GENERIC_GENERATOR)
+                .string("name", name)
+                .string("strategy", strategy);
+        if (!params.isEmpty()) {
+            List<AnnotationSpec> parameters = new ArrayList<>(params.size());
+            params.forEach((paramName, value) -> parameters.add(AnnotationSpec.builder(PARAMETER)
+                    .string("name", paramName)
+                    .string("value", value)
+                    .build()));
+            spec.annotations("parameters", parameters);
+        }
+        return List.of(generatedValue(null, name), spec.build());
+    }
+
+    private static AnnotationSpec generatedValue(String strategy, String generatorName) {
+        AnnotationSpec.Builder spec = AnnotationSpec.builder(HibernateAnnotationRules.GENERATED_VALUE);
+        if (strategy != null) {
+            spec.enumValue("strategy", GENERATION_TYPE, strategy);
+        }
+        if (generatorName != null) {
+            spec.string("generator", generatorName);
+        }
+        return spec.build();
+    }
+
+    /**
+     * The sequence, from the enhanced generator's {@code sequence_name} or the legacy
+     * {@code sequence} param, defaulting to Hibernate's shared sequence.
+     */
+    private static String getSequenceName(HibernateModel.Generator generator) {
+        String sequenceName = generator.param("sequence_name");
+        if (sequenceName == null) {
+            sequenceName = generator.param("sequence");
+        }
+        return sequenceName != null && !sequenceName.isBlank() ? sequenceName.trim() : DEFAULT_SEQUENCE;
+    }
+
+    private static Map<String, String> withSequenceName(Map<String, String> params, HibernateModel.Generator generator) {
+        Map<String, String> result = new LinkedHashMap<>(params);
+        result.remove("sequence");
+        result.putIfAbsent("sequence_name", getSequenceName(generator));
+        return result;
+    }
+
+    private static void putIfPresent(AnnotationSpec.Builder spec, String attribute, String value) {
+        if (value != null) {
+            spec.string(attribute, value);
+        }
+    }
+
+    private static boolean isInteger(String value) {
+        if (value == null) return true;
+        try {
+            Integer.parseInt(value.trim());
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package org.Roshan.core;
+
+/**
+ * An annotation the rules want on a target.
+ *
+ * @param target Where the annotation goes
+ * @param spec   The annotation to add
+ */
+public record PlannedAnnotation(AnnotationTarget target, AnnotationSpec spec) {
+}
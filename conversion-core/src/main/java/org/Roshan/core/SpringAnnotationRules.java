@@ -0,0 +1,46 @@
+package org.Roshan.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Computes the Spring annotations that replace a bean definition: {@code @Component} on the
+ * class, {@code @Autowired} on referenced properties and {@code @Value} on literal ones.
+ * Constructor injection and qualifiers depend on the class's constructors and the types of other
+ * beans, so they are left to the caller, which can see the code.
+ */
+public final class SpringAnnotationRules {
+    public static final String COMPONENT = "org.springframework.stereotype.Component";
+    public static final String AUTOWIRED = "org.springframework.beans.factory.annotation.Autowired";
+    public static final String VALUE = "org.springframework.beans.factory.annotation.Value";
+    public static final String QUALIFIER = "org.springframework.beans.factory.annotation.Qualifier";
+
+    private SpringAnnotationRules() {
+    }
+
+    public static List<PlannedAnnotation> plan(SpringModel.Bean bean) {
+        if (bean.className() == null) return List.of();
+
+        List<PlannedAnnotation> annotations = new ArrayList<>();
+        annotations.add(new PlannedAnnotation(AnnotationTarget.ofClass(bean.className()), AnnotationSpec.of(COMPONENT)));
+
+        for (SpringModel.PropertyInjection property : bean.properties()) {
+            AnnotationTarget field = AnnotationTarget.ofField(bean.className(), property.name());
+            if (property.ref() != null) {
+                annotations.add(new PlannedAnnotation(field, AnnotationSpec.of(AUTOWIRED)));
+            }
+            if (property.value() != null) {
+                annotations.add(new PlannedAnnotation(field,
+                        AnnotationSpec.builder(VALUE).string("value", property.value()).build()));
+            }
+        }
+        return annotations;
+    }
+
+    /**
+     * {@code @Qualifier} naming a bean, for injection points whose type matches several beans.
+     */
+    public static AnnotationSpec qualifier(String beanName) {
+        return AnnotationSpec.builder(QUALIFIER).string("value", beanName).build();
+    }
+}
@@ -0,0 +1,98 @@
+package org.Roshan.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads Spring {@code beans} documents into the {@link SpringModel}.
+ */
+public final class SpringBeansReader {
+    public static final String BEANS_TAG = "beans";
+    public static final String BEAN_TAG = "bean";
+    public static final String C_NAMESPACE = "http://www.springframework.org/schema/c";
+    private static final String C_PREFIX = "{" + C_NAMESPACE + "}";
+    private static final String REF_SUFFIX = "-ref";
+
+    private SpringBeansReader() {
+    }
+
+    /**
+     * Reads the top-level bean definitions of a document.
+     */
+    public static List<SpringModel.Bean> read(XmlElement root) {
+        if (!BEANS_TAG.equals(root.name())) {
+            throw new IllegalArgumentException("Not a Spring beans document: <" + root.name() + ">");
+        }
+
+        List<SpringModel.Bean> beans = new ArrayList<>();
+        for (XmlElement beanElement : root.children(BEAN_TAG)) {
+            beans.add(readBean(beanElement));
+        }
+        return beans;
+    }
+
+    public static SpringModel.Bean readBean(XmlElement beanElement) {
+        List<SpringModel.PropertyInjection> properties = new ArrayList<>();
+        for (XmlElement property : beanElement.children("property")) {
+            if (property.attribute("name") == null) continue;
+            properties.add(new SpringModel.PropertyInjection(property.attribute("name"),
+                    getRefName(property), property.attribute("value")));
+        }
+        return new SpringModel.Bean(beanElement.attribute("id"), beanElement.attribute("class"),
+                properties, getConstructorArguments(beanElement));
+    }
+
+    /**
+     * Collects the {@code <constructor-arg>} elements and the {@code c:} attributes of a bean.
+     */
+    public static List<SpringModel.ConstructorArgument> getConstructorArguments(XmlElement beanElement) {
+        List<SpringModel.ConstructorArgument> args = new ArrayList<>();
+        for (XmlElement arg : beanElement.children("constructor-arg")) {
+            args.add(new SpringModel.ConstructorArgument(parseIndex(arg.attribute("index")),
+                    arg.attribute("name"), arg.attribute("type"), getRefName(arg)));
+        }
+
+        // c:name="value", c:name-ref="bean", c:_0="value" and c:_0-ref="bean"
+        for (Map.Entry<String, String> attribute : beanElement.attributes().entrySet()) {
+            if (!attribute.getKey().startsWith(C_PREFIX)) continue;
+
+            String localName = attribute.getKey().substring(C_PREFIX.length());
+            boolean isRef = localName.endsWith(REF_SUFFIX);
+            String key = isRef ? localName.substring(0, localName.length() - REF_SUFFIX.length()) : localName;
+            String ref = isRef ? attribute.getValue() : null;
+            if (key.startsWith("_")) {
+                args.add(new SpringModel.ConstructorArgument(parseIndex(key.substring(1)), null, null, ref));
+            } else {
+                args.add(new SpringModel.ConstructorArgument(-1, key, null, ref));
+            }
+        }
+        return args;
+    }
+
+    /**
+     * The bean referenced by a {@code <property>}, {@code <constructor-arg>} or {@code <ref>}
+     * element, either through the {@code ref} attribute or a nested {@code <ref bean>}, or null
+     * if it injects a value.
+     */
+    public static String getRefName(XmlElement element) {
+        String ref = element.attribute("ref");
+        if (ref == null && "ref".equals(element.name())) {
+            ref = element.attribute("bean");
+        }
+        if (ref == null) {
+            XmlElement refElement = element.child("ref");
+            ref = refElement != null ? refElement.attribute("bean") : null;
+        }
+        return ref == null || ref.isBlank() ? null : ref.trim();
+    }
+
+    private static int parseIndex(String index) {
+        if (index == null) return -1;
+        try {
+            return Integer.parseInt(index.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
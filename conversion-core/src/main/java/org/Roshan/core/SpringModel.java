@@ -0,0 +1,52 @@
+package org.Roshan.core;
+
+import java.util.List;
+
+/**
+ * Immutable model of the bean definitions of a Spring {@code beans} document, as read by
+ * {@link SpringBeansReader}. Absent attributes are null.
+ */
+public final class SpringModel {
+
+    private SpringModel() {
+    }
+
+    /**
+     * A {@code <bean>} definition.
+     *
+     * @param id               The bean id
+     * @param className        The bean class as written
+     * @param properties       Property injection points
+     * @param constructorArgs  Constructor injection points, from tags and {@code c:} attributes
+     */
+    public record Bean(String id, String className, List<PropertyInjection> properties,
+                       List<ConstructorArgument> constructorArgs) {
+        public Bean {
+            properties = List.copyOf(properties);
+            constructorArgs = List.copyOf(constructorArgs);
+        }
+    }
+
+    /**
+     * A {@code <property>} injection point.
+     *
+     * @param name  Property name, taken as the field name
+     * @param ref   Name of the referenced bean, null for values
+     * @param value Literal value, null for references
+     */
+    public record PropertyInjection(String name, String ref, String value) {
+    }
+
+    /**
+     * One constructor argument of a bean definition. A record, so equal arguments are equal; code
+     * that has to tell several equal arguments apart keys them by identity, like the constructor
+     * resolver's {@code IdentityHashMap}.
+     *
+     * @param index Explicit parameter index, -1 if none
+     * @param name  Explicit parameter name, null if none
+     * @param type  Explicit parameter type, null if none
+     * @param ref   Name of the referenced bean, null for values
+     */
+    public record ConstructorArgument(int index, String name, String type, String ref) {
+    }
+}
@@ -0,0 +1,63 @@
+package org.Roshan.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable XML element, the input of the readers. It is produced by {@link XmlElementParser}
+ * from a file or by the plugin from PSI, so the mapping logic never depends on either.
+ * Attributes without a namespace are keyed by their local name, namespaced ones by
+ * {@code {namespace}localName}.
+ *
+ * @param name       Local name of the element
+ * @param attributes Attribute values in document order
+ * @param children   Child elements in document order
+ * @param text       Trimmed text content, empty if none
+ */
+public record XmlElement(String name, Map<String, String> attributes, List<XmlElement> children, String text) {
+
+    public XmlElement {
+        attributes = Collections.unmodifiableMap(new LinkedHashMap<>(attributes));
+        children = List.copyOf(children);
+    }
+
+    /**
+     * Key of a namespaced attribute in {@link #attributes()}.
+     */
+    public static String qualify(String namespace, String localName) {
+        return namespace.isEmpty() ? localName : "{" + namespace + "}" + localName;
+    }
+
+    /**
+     * The attribute value, or null if the element does not have the attribute.
+     */
+    public String attribute(String name) {
+        return attributes.get(name);
+    }
+
+    /**
+     * The first child with the given name, or null if there is none.
+     */
+    public XmlElement child(String name) {
+        for (XmlElement child : children) {
+            if (child.name().equals(name)) return child;
+        }
+        return null;
+    }
+
+    /**
+     * All children with the given name.
+     */
+    public List<XmlElement> children(String name) {
+        List<XmlElement> result = new ArrayList<>();
+        for (XmlElement child : children) {
+            if (child.name().equals(name)) {
+                result.add(child);
+            }
+        }
+        return result;
+    }
+}
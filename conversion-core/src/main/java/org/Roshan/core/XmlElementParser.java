@@ -0,0 +1,131 @@
+package org.Roshan.core;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parses XML documents into {@link XmlElement} trees with a streaming reader. DTDs and external
+ * entities are never loaded, so the DOCTYPE of a Hibernate mapping does not go to the network.
+ * The parser is thread-safe.
+ */
+public final class XmlElementParser {
+    private static final XMLInputFactory FACTORY = createFactory();
+
+    private XmlElementParser() {
+    }
+
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+
+    /**
+     * Parses a file and returns its root element.
+     */
+    public static XmlElement parse(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            XMLStreamReader reader;
+            try {
+                reader = FACTORY.createXMLStreamReader(in);
+            } catch (XMLStreamException e) {
+                throw new IOException("Cannot parse " + file + ": " + e.getMessage(), e);
+            }
+            return read(reader, file.toString());
+        }
+    }
+
+    /**
+     * Parses a document and returns its root element.
+     */
+    public static XmlElement parse(Reader in, String sourceName) throws IOException {
+        XMLStreamReader reader;
+        try {
+            reader = FACTORY.createXMLStreamReader(in);
+        } catch (XMLStreamException e) {
+            throw new IOException("Cannot parse " + sourceName + ": " + e.getMessage(), e);
+        }
+        return read(reader, sourceName);
+    }
+
+    public static XmlElement parse(String text) throws IOException {
+        return parse(new StringReader(text), "<text>");
+    }
+
+    private static XmlElement read(XMLStreamReader reader, String sourceName) throws IOException {
+        // Elements under construction, innermost last
+        Deque<Builder> open = new ArrayDeque<>();
+        try {
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT -> open.addLast(startElement(reader));
+                    case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA -> {
+                        Builder current = open.peekLast();
+                        if (current != null) {
+                            current.text.append(reader.getText());
+                        }
+                    }
+                    case XMLStreamConstants.END_ELEMENT -> {
+                        XmlElement element = open.removeLast().build();
+                        Builder parent = open.peekLast();
+                        if (parent == null) return element;
+                        parent.children.add(element);
+                    }
+                    default -> {
+                    }
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Cannot parse " + sourceName + ": " + e.getMessage(), e);
+        } finally {
+            try {
+                reader.close();
+            } catch (XMLStreamException ignored) {
+            }
+        }
+        throw new IOException("No root element in " + sourceName);
+    }
+
+    private static Builder startElement(XMLStreamReader reader) {
+        Builder builder = new Builder(reader.getLocalName());
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            String namespace = reader.getAttributeNamespace(i);
+            builder.attributes.put(
+                    XmlElement.qualify(namespace == null ? "" : namespace, reader.getAttributeLocalName(i)),
+                    reader.getAttributeValue(i));
+        }
+        return builder;
+    }
+
+    private static final class Builder {
+        private final String name;
+        private final Map<String, String> attributes = new LinkedHashMap<>();
+        private final List<XmlElement> children = new ArrayList<>();
+        private final StringBuilder text = new StringBuilder();
+
+        private Builder(String name) {
+            this.name = name;
+        }
+
+        private XmlElement build() {
+            return new XmlElement(name, attributes, children, text.toString().trim());
+        }
+    }
+}
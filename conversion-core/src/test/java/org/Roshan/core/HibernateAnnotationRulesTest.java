@@ -0,0 +1,242 @@
+package org.Roshan.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HibernateAnnotationRulesTest {
+
+    /**
+     * Plans every class of the mapping the way batch mode does, rendered as
+     * {@code "<member or class> <annotation>"}.
+     */
+    private static List<String> plan(String mapping) throws IOException {
+        return BatchConverter.plan(XmlElementParser.parse(mapping)).stream()
+                .map(annotation -> (annotation.target().member() != null
+                        ? annotation.target().member()
+                        : annotation.target().className()) + " " + annotation.spec().render())
+                .toList();
+    }
+
+    @Test
+    void mapsClassTableIdAndProperties() throws IOException {
+        List<String> annotations = plan("""
+                <hibernate-mapping package="p">
+                  <class name="Order" table="ORDERS" schema="SALES">
+                    <id name="id" column="ID"/>
+                    <property name="code" column="CODE" length="20" not-null="true"/>
+                  </class>
+                </hibernate-mapping>""");
+
+        assertEquals(List.of(
+                "p.Order @jakarta.persistence.Entity",
+                "p.Order @jakarta.persistence.Table(name = \"ORDERS\", schema = \"SALES\")",
+                "id @jakarta.persistence.Id",
+                "id @jakarta.persistence.Column(name = \"ID\")",
+                "code @jakarta.persistence.Column(name = \"CODE\", length = 20, nullable = false)"), annotations);
+    }
+
+    @Test
+    void fetchesManyToOneLazilyLikeHibernate() throws IOException {
+        List<String> annotations = plan("""
+                <hibernate-mapping>
+                  <class name="A">
+                    <many-to-one name="b" column="B_ID"/>
+                    <many-to-one name="c" column="C_ID" fetch="join"/>
+                  </class>
+                </hibernate-mapping>""");
+
+        assertTrue(annotations.contains("b @jakarta.persistence.ManyToOne(fetch = jakarta.persistence.FetchType.LAZY)"));
+        assertTrue(annotations.contains("c @jakarta.persistence.ManyToOne(fetch = jakarta.persistence.FetchType.EAGER)"));
+        assertTrue(annotations.contains(
+                "c @org.hibernate.annotations.Fetch(org.hibernate.annotations.FetchMode.JOIN)"));
+    }
+
+    @Test
+    void infersMappedByOfInverseOneToMany() throws IOException {
+        List<String> annotations = plan("""
+                <hibernate-mapping package="p">
+                  <class name="Order">
+                    <set name="lines" inverse="true"><key column="ORDER_ID"/><one-to-many class="Line"/></set>
+                  </class>
+                  <class name="Line"><many-to-one name="order" column="ORDER_ID"/></class>
+                </hibernate-mapping>""");
+
+        assertTrue(annotations.contains("lines @jakarta.persistence.OneToMany(mappedBy = \"order\")"));
+        assertTrue(annotations.stream().noneMatch(annotation -> annotation.startsWith("lines @jakarta.persistence.JoinColumn")));
+    }
+
+    @Test
+    void mapsKeyOfInverseOneToManyWithoutOwnerReadOnly() throws IOException {
+        List<String> annotations = plan("""
+                <hibernate-mapping>
+                  <class name="Order">
+                    <set name="lines" inverse="true"><key column="ORDER_ID"/><one-to-many class="Line"/></set>
+                  </class>
+                </hibernate-mapping>""");
+
+        assertTrue(annotations.contains("lines @jakarta.persistence.OneToMany"));
+        assertTrue(annotations.contains(
+                "lines @jakarta.persistence.JoinColumn(name = \"ORDER_ID\", insertable = false, updatable = false)"));
+    }
+
+    @Test
+    void infersMappedByOfInverseManyToMany() throws IOException {
+        List<String> annotations = plan("""
+                <hibernate-mapping>
+                  <class name="Order">
+                    <set name="tags" inverse="true" table="ORDER_TAG">
+                      <key column="ORDER_ID"/><many-to-many class="Tag" column="TAG_ID"/>
+                    </set>
+                  </class>
+                  <class name="Tag">
+                    <set name="orders" table="ORDER_TAG">
+                      <key column="TAG_ID"/><many-to-many class="Order" column="ORDER_ID"/>
+                    </set>
+                  </class>
+                </hibernate-mapping>""");
+
+        assertTrue(annotations.contains("tags @jakarta.persistence.ManyToMany(mappedBy = \"orders\")"));
+        assertTrue(annotations.contains("orders @jakarta.persistence.JoinTable(name = \"ORDER_TAG\", "
+                + "joinColumns = {@jakarta.persistence.JoinColumn(name = \"TAG_ID\")}, "
+                + "inverseJoinColumns = {@jakarta.persistence.JoinColumn(name = \"ORDER_ID\")})"));
+    }
+
+    @Test
+    void mapsJoinTableOfInverseManyToManyWithoutOwner() throws IOException {
+        List<String> annotations = plan("""
+                <hibernate-mapping>
+                  <class name="Order">
+                    <set name="tags" inverse="true" table="ORDER_TAG">
+                      <key column="ORDER_ID"/><many-to-many class="Tag" column="TAG_ID"/>
+                    </set>
+                  </class>
+                </hibernate-mapping>""");
+
+        assertTrue(annotations.contains("tags @jakarta.persistence.ManyToMany"));
+        assertTrue(annotations.contains("tags @jakarta.persistence.JoinTable(name = \"ORDER_TAG\", "
+                + "joinColumns = {@jakarta.persistence.JoinColumn(name = \"ORDER_ID\")}, "
+                + "inverseJoinColumns = {@jakarta.persistence.JoinColumn(name = \"TAG_ID\")})"));
+    }
+
+    @Test
+    void carriesCollectionTuning() throws IOException {
+        List<String> annotations = plan("""
+                <hibernate-mapping>
+                  <class name="A">
+                    <bag name="bs" lazy="extra" batch-size="16" fetch="subselect">
+                      <key column="A_ID"/><one-to-many class="B"/>
+                    </bag>
+                  </class>
+                </hibernate-mapping>""");
+
+        assertTrue(annotations.contains("bs @org.hibernate.annotations.LazyCollection("
+                + "org.hibernate.annotations.LazyCollectionOption.EXTRA)"));
+        assertTrue(annotations.contains("bs @org.hibernate.annotations.BatchSize(size = 16)"));
+        assertTrue(annotations.contains(
+                "bs @org.hibernate.annotations.Fetch(org.hibernate.annotations.FetchMode.SUBSELECT)"));
+    }
+
+    @Test
+    void carriesClassAndCollectionCaches() throws IOException {
+        List<String> annotations = plan("""
+                <hibernate-mapping>
+                  <class name="A">
+                    <cache usage="read-write" region="a"/>
+                    <bag name="bs">
+                      <cache usage="nonstrict-read-write"/>
+                      <key column="A_ID"/><one-to-many class="B"/>
+                    </bag>
+                  </class>
+                </hibernate-mapping>""");
+
+        assertTrue(annotations.contains("A @jakarta.persistence.Cacheable"));
+        assertTrue(annotations.contains("A @org.hibernate.annotations.Cache(usage = "
+                + "org.hibernate.annotations.CacheConcurrencyStrategy.READ_WRITE, region = \"a\")"));
+        assertTrue(annotations.contains("bs @org.hibernate.annotations.Cache(usage = "
+                + "org.hibernate.annotations.CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)"));
+    }
+
+    @Test
+    void mapsClassWriteOptionsAndVersion() throws IOException {
+        List<String> annotations = plan("""
+                <hibernate-mapping>
+                  <class name="A" dynamic-update="true" mutable="false" optimistic-lock="dirty">
+                    <version name="version" column="VER"/>
+                  </class>
+                </hibernate-mapping>""");
+
+        assertTrue(annotations.contains("A @org.hibernate.annotations.DynamicUpdate"));
+        assertTrue(annotations.contains("A @org.hibernate.annotations.Immutable"));
+        assertTrue(annotations.contains("A @org.hibernate.annotations.OptimisticLocking("
+                + "type = org.hibernate.annotations.OptimisticLockType.DIRTY)"));
+        assertTrue(annotations.contains("version @jakarta.persistence.Version"));
+        assertTrue(annotations.contains("version @jakarta.persistence.Column(name = \"VER\")"));
+    }
+
+    @Test
+    void ignoresClassOptionsAtTheirDefaults() throws IOException {
+        List<String> annotations = plan("""
+                <hibernate-mapping>
+                  <class name="A" dynamic-update="false" mutable="true" optimistic-lock="version"/>
+                </hibernate-mapping>""");
+
+        assertEquals(List.of("A @jakarta.persistence.Entity"), annotations);
+    }
+
+    @Test
+    void mapsLazyPropertiesFormulasAndIndexes() throws IOException {
+        List<String> annotations = plan("""
+                <hibernate-mapping>
+                  <class name="A">
+                    <property name="doc" column="DOC" lazy="true"/>
+                    <property name="small" formula="x.a &lt; 3"/>
+                    <property name="first" column="FIRST" index="IDX_NAME" unique-key="UK_NAME"/>
+                    <property name="last" index="IDX_NAME" unique-key="UK_NAME" insert="false"/>
+                  </class>
+                </hibernate-mapping>""");
+
+        assertTrue(annotations.contains("A @jakarta.persistence.Table(indexes = {@jakarta.persistence.Index("
+                + "name = \"IDX_NAME\", columnList = \"FIRST, last\")}, uniqueConstraints = {"
+                + "@jakarta.persistence.UniqueConstraint(name = \"UK_NAME\", columnNames = {\"FIRST\", \"last\"})})"));
+        assertTrue(annotations.contains("doc @jakarta.persistence.Basic(fetch = jakarta.persistence.FetchType.LAZY)"));
+        assertTrue(annotations.contains("small @org.hibernate.annotations.Formula(\"x.a < 3\")"));
+        assertTrue(annotations.contains("last @jakarta.persistence.Column(insertable = false)"));
+    }
+
+    @Test
+    void mapsIndexHintsOfNestedColumnsAndManyToOnes() throws IOException {
+        List<String> annotations = plan("""
+                <hibernate-mapping>
+                  <class name="A">
+                    <property name="code"><column name="CODE" index="IDX_CODE" unique-key="UK_CODE_B"/></property>
+                    <many-to-one name="b" column="B_ID" unique-key="UK_CODE_B"/>
+                    <many-to-one name="c"><column name="C_ID" index="IDX_C"/></many-to-one>
+                  </class>
+                </hibernate-mapping>""");
+
+        assertTrue(annotations.contains("A @jakarta.persistence.Table(indexes = {"
+                + "@jakarta.persistence.Index(name = \"IDX_CODE\", columnList = \"CODE\"), "
+                + "@jakarta.persistence.Index(name = \"IDX_C\", columnList = \"C_ID\")}, uniqueConstraints = {"
+                + "@jakarta.persistence.UniqueConstraint(name = \"UK_CODE_B\", columnNames = {\"CODE\", \"B_ID\"})})"));
+        assertTrue(annotations.contains("code @jakarta.persistence.Column(name = \"CODE\")"));
+    }
+
+    @Test
+    void targetsEmbeddedKeyClass() throws IOException {
+        List<PlannedAnnotation> annotations = BatchConverter.plan(XmlElementParser.parse("""
+                <hibernate-mapping package="p">
+                  <class name="A">
+                    <composite-id name="key"><class name="AKey"><key-property name="x" column="X"/></class></composite-id>
+                  </class>
+                </hibernate-mapping>"""));
+
+        assertTrue(annotations.contains(new PlannedAnnotation(AnnotationTarget.ofClass("p.AKey"),
+                AnnotationSpec.of(HibernateAnnotationRules.EMBEDDABLE))));
+        assertTrue(annotations.contains(new PlannedAnnotation(AnnotationTarget.ofField("p.A", "key"),
+                AnnotationSpec.of(HibernateAnnotationRules.EMBEDDED_ID))));
+    }
+}
@@ -0,0 +1,169 @@
+package org.Roshan.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HibernateMappingReaderTest {
+
+    private static List<HibernateModel.Entity> read(String mapping) throws IOException {
+        return HibernateMappingReader.read(XmlElementParser.parse(mapping));
+    }
+
+    @Test
+    void appliesThePackageToClassNames() throws IOException {
+        List<HibernateModel.Entity> entities = read("""
+                <hibernate-mapping package="com.example">
+                  <class name="Order" table="ORDERS"/>
+                  <class name="org.other.Line"/>
+                </hibernate-mapping>""");
+
+        assertEquals(List.of("com.example.Order", "org.other.Line"),
+                entities.stream().map(HibernateModel.Entity::className).toList());
+        assertEquals("ORDERS", entities.get(0).table());
+    }
+
+    @Test
+    void skipsClassesWithoutName() throws IOException {
+        assertTrue(read("<hibernate-mapping><class table=\"T\"/></hibernate-mapping>").isEmpty());
+    }
+
+    @Test
+    void rejectsOtherDocuments() {
+        assertThrows(IllegalArgumentException.class, () -> read("<beans/>"));
+    }
+
+    @Test
+    void readsGeneratorParamsInOrder() throws IOException {
+        HibernateModel.Entity entity = read("""
+                <hibernate-mapping>
+                  <class name="A">
+                    <id name="id" column="ID">
+                      <generator class="sequence">
+                        <param name="sequence_name">A_SEQ</param>
+                        <param name="increment_size">20</param>
+                      </generator>
+                    </id>
+                  </class>
+                </hibernate-mapping>""").get(0);
+
+        HibernateModel.Generator generator = entity.id().generator();
+        assertEquals("sequence", generator.className());
+        assertEquals(List.of("sequence_name", "increment_size"), List.copyOf(generator.params().keySet()));
+        assertEquals("A_SEQ", generator.param("sequence_name"));
+        assertEquals("ID", entity.id().column().name());
+    }
+
+    @Test
+    void readsCollectionKeysIndexesAndElements() throws IOException {
+        HibernateModel.Entity entity = read("""
+                <hibernate-mapping package="p">
+                  <class name="A">
+                    <list name="lines" inverse="true">
+                      <key><column name="A_ID"/></key>
+                      <list-index column="POS"/>
+                      <one-to-many class="Line"/>
+                    </list>
+                    <map name="labels" table="A_LABEL">
+                      <key column="A_ID"/>
+                      <map-key column="LANG" type="string"/>
+                      <element column="LABEL" type="string"/>
+                    </map>
+                  </class>
+                </hibernate-mapping>""").get(0);
+
+        HibernateModel.Collection lines = entity.collections().get(0);
+        assertEquals(HibernateModel.CollectionKind.LIST, lines.kind());
+        assertEquals("A_ID", lines.keyColumn());
+        assertEquals("POS", lines.indexColumn());
+        assertEquals(HibernateModel.ElementKind.ONE_TO_MANY, lines.elementKind());
+        assertEquals("p.Line", lines.elementClass());
+        assertTrue(lines.inverse());
+
+        HibernateModel.Collection labels = entity.collections().get(1);
+        assertEquals("LANG", labels.mapKeyColumn());
+        assertNull(labels.indexColumn());
+        assertEquals(HibernateModel.ElementKind.ELEMENT, labels.elementKind());
+        assertEquals("LABEL", labels.elementColumn());
+    }
+
+    @Test
+    void readsPropertyHintsAndFormulaElements() throws IOException {
+        HibernateModel.Entity entity = read("""
+                <hibernate-mapping>
+                  <class name="A">
+                    <property name="total" precision="10" scale="2" update="false" index="IDX_TOTAL"/>
+                    <property name="upper"><formula>upper(name)</formula></property>
+                  </class>
+                </hibernate-mapping>""").get(0);
+
+        HibernateModel.Property total = entity.properties().get(0);
+        assertEquals("10", total.column().precision());
+        assertEquals("false", total.column().update());
+        assertEquals("IDX_TOTAL", total.index());
+        assertEquals("upper(name)", entity.properties().get(1).formula());
+    }
+
+    @Test
+    void readsColumnDetailsFromNestedColumns() throws IOException {
+        HibernateModel.Entity entity = read("""
+                <hibernate-mapping>
+                  <class name="A">
+                    <property name="code">
+                      <column name="CODE" length="20" not-null="true" index="IDX_CODE" unique-key="UK_CODE"/>
+                    </property>
+                    <many-to-one name="b"><column name="B_ID" index="IDX_B"/></many-to-one>
+                  </class>
+                </hibernate-mapping>""").get(0);
+
+        HibernateModel.Property code = entity.properties().get(0);
+        assertEquals(new HibernateModel.Column("CODE", "20", "true", null, null, null, null, null), code.column());
+        assertEquals("IDX_CODE", code.index());
+        assertEquals("UK_CODE", code.uniqueKey());
+
+        HibernateModel.Relation b = entity.relations().get(0);
+        assertEquals("B_ID", b.column());
+        assertEquals("IDX_B", b.index());
+    }
+
+    @Test
+    void decodesEntitiesInAttributes() throws IOException {
+        HibernateModel.Entity entity = read("""
+                <hibernate-mapping>
+                  <class name="A"><property name="small" formula="x.a &lt; 3 and x.b &amp; 1 = 1"/></class>
+                </hibernate-mapping>""").get(0);
+
+        assertEquals("x.a < 3 and x.b & 1 = 1", entity.properties().get(0).formula());
+    }
+
+    @Test
+    void readsEmbeddedAndIdClassCompositeIds() throws IOException {
+        List<HibernateModel.Entity> entities = read("""
+                <hibernate-mapping package="p">
+                  <class name="A">
+                    <composite-id name="key">
+                      <class name="AKey"><key-property name="x" column="X"/></class>
+                    </composite-id>
+                  </class>
+                  <class name="B">
+                    <composite-id class="p.BKey">
+                      <key-property name="y"/>
+                      <key-many-to-one name="a" column="A_ID"/>
+                    </composite-id>
+                  </class>
+                </hibernate-mapping>""");
+
+        HibernateModel.CompositeId embedded = entities.get(0).compositeId();
+        assertTrue(embedded.isEmbedded());
+        assertEquals("p.AKey", embedded.embeddedClass());
+        assertEquals("X", embedded.keyProperties().get(0).column());
+
+        HibernateModel.CompositeId idClass = entities.get(1).compositeId();
+        assertFalse(idClass.isEmbedded());
+        assertEquals("p.BKey", idClass.idClass());
+        assertEquals("A_ID", idClass.keyManyToOnes().get(0).column());
+    }
+}
@@ -0,0 +1,103 @@
+package org.Roshan.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdGeneratorRulesTest {
+    private static final String ENTITY = "com.example.Order";
+    private static final String NAME = "com.example.Order_IdGenerator";
+
+    private static List<String> annotations(String generatorClass, String... params) {
+        Map<String, String> paramMap = new LinkedHashMap<>();
+        for (int i = 0; i < params.length; i += 2) {
+            paramMap.put(params[i], params[i + 1]);
+        }
+        return IdGeneratorRules.annotations(ENTITY, new HibernateModel.Generator(generatorClass, paramMap)).stream()
+                .map(AnnotationSpec::render)
+                .toList();
+    }
+
+    @Test
+    void assignedIdsGetNoGenerator() {
+        assertEquals(List.of(), annotations("assigned"));
+    }
+
+    @Test
+    void identityUsesTheJpaStrategy() {
+        assertEquals(List.of("@jakarta.persistence.GeneratedValue("
+                + "strategy = jakarta.persistence.GenerationType.IDENTITY)"), annotations("identity"));
+    }
+
+    @Test
+    void sequenceKeepsItsNameAndIncrement() {
+        assertEquals(List.of(
+                "@jakarta.persistence.GeneratedValue(strategy = jakarta.persistence.GenerationType.SEQUENCE, "
+                        + "generator = \"" + NAME + "\")",
+                "@jakarta.persistence.SequenceGenerator(name = \"" + NAME + "\", sequenceName = \"ORDER_SEQ\", "
+                        + "initialValue = 100, allocationSize = 20)"),
+                annotations("sequence", "sequence", "ORDER_SEQ", "initial_value", "100", "increment_size", "20"));
+    }
+
+    @Test
+    void sequenceDefaultsToHibernatesSequenceWithoutPooling() {
+        assertEquals("@jakarta.persistence.SequenceGenerator(name = \"" + NAME + "\", "
+                + "sequenceName = \"hibernate_sequence\", allocationSize = 1)", annotations("sequence").get(1));
+    }
+
+    @Test
+    void optimizersJpaCannotExpressKeepTheEnhancedGenerator() {
+        List<String> annotations = annotations("enhanced-sequence", "sequence_name", "S", "optimizer", "pooled-lo");
+
+        assertEquals("@org.hibernate.annotations.GenericGenerator(name = \"" + NAME + "\", "
+                + "strategy = \"org.hibernate.id.enhanced.SequenceStyleGenerator\", parameters = {"
+                + "@org.hibernate.annotations.Parameter(name = \"sequence_name\", value = \"S\"), "
+                + "@org.hibernate.annotations.Parameter(name = \"optimizer\", value = \"pooled-lo\")})",
+                annotations.get(1));
+    }
+
+    @Test
+    void enhancedTableBecomesTableGenerator() {
+        assertEquals("@jakarta.persistence.TableGenerator(name = \"" + NAME + "\", table = \"IDS\", "
+                        + "pkColumnValue = \"order\", allocationSize = 1)",
+                annotations("enhanced-table", "table_name", "IDS", "segment_value", "order").get(1));
+    }
+
+    @Test
+    void seqHiLoUsesTheLegacyHiLoOptimizer() {
+        assertEquals("@org.hibernate.annotations.GenericGenerator(name = \"" + NAME + "\", "
+                + "strategy = \"org.hibernate.id.enhanced.SequenceStyleGenerator\", parameters = {"
+                + "@org.hibernate.annotations.Parameter(name = \"sequence_name\", value = \"ORDER_SEQ\"), "
+                + "@org.hibernate.annotations.Parameter(name = \"optimizer\", value = \"legacy-hilo\"), "
+                + "@org.hibernate.annotations.Parameter(name = \"increment_size\", value = \"100\")})",
+                annotations("seqhilo", "sequence", "ORDER_SEQ", "max_lo", "99").get(1));
+    }
+
+    @Test
+    void hiLoIsNotPassedThroughToHibernate6() {
+        String generator = annotations("hilo").get(1);
+
+        assertFalse(generator.contains("strategy = \"hilo\""));
+        assertTrue(generator.contains("strategy = \"org.hibernate.id.enhanced.SequenceStyleGenerator\""));
+        assertTrue(generator.contains("@org.hibernate.annotations.Parameter(name = \"optimizer\", value = \"legacy-hilo\")"));
+        // TableHiLoGenerator's default max_lo is Short.MAX_VALUE
+        assertTrue(generator.contains("@org.hibernate.annotations.Parameter(name = \"increment_size\", value = \"32768\")"));
+    }
+
+    @Test
+    void otherGeneratorsKeepTheirStrategyAndParams() {
+        assertEquals("@org.hibernate.annotations.GenericGenerator(name = \"" + NAME + "\", strategy = \"foreign\", "
+                + "parameters = {@org.hibernate.annotations.Parameter(name = \"property\", value = \"customer\")})",
+                annotations("foreign", "property", "customer").get(1));
+    }
+
+    @Test
+    void generatorNamesDifferForSameNamedEntities() {
+        assertNotEquals(IdGeneratorRules.getGeneratorName("com.example.a.Order"),
+                IdGeneratorRules.getGeneratorName("com.example.b.Order"));
+    }
+}
@@ -0,0 +1,78 @@
+package org.Roshan.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpringAnnotationRulesTest {
+
+    private static SpringModel.Bean readBean(String beans) throws IOException {
+        return SpringBeansReader.read(XmlElementParser.parse(beans)).get(0);
+    }
+
+    private static List<String> plan(String beans) throws IOException {
+        return SpringAnnotationRules.plan(readBean(beans)).stream()
+                .map(annotation -> (annotation.target().member() != null
+                        ? annotation.target().member()
+                        : annotation.target().className()) + " " + annotation.spec().render())
+                .toList();
+    }
+
+    @Test
+    void mapsReferencesAndValues() throws IOException {
+        List<String> annotations = plan("""
+                <beans>
+                  <bean id="orderService" class="com.example.OrderService">
+                    <property name="repository" ref="orderRepository"/>
+                    <property name="audit"><ref bean="auditLog"/></property>
+                    <property name="timeout" value="30"/>
+                  </bean>
+                </beans>""");
+
+        assertEquals(List.of(
+                "com.example.OrderService @org.springframework.stereotype.Component",
+                "repository @org.springframework.beans.factory.annotation.Autowired",
+                "audit @org.springframework.beans.factory.annotation.Autowired",
+                "timeout @org.springframework.beans.factory.annotation.Value(\"30\")"), annotations);
+    }
+
+    @Test
+    void decodesAndEscapesValues() throws IOException {
+        List<String> annotations = plan("""
+                <beans>
+                  <bean class="A"><property name="query" value="a &lt; &quot;b&quot; &amp;&amp; c"/></bean>
+                </beans>""");
+
+        assertEquals("query @org.springframework.beans.factory.annotation.Value(\"a < \\\"b\\\" && c\")",
+                annotations.get(1));
+    }
+
+    @Test
+    void beansWithoutClassGetNothing() throws IOException {
+        assertEquals(List.of(), plan("<beans><bean id=\"parent\" abstract=\"true\"/></beans>"));
+    }
+
+    @Test
+    void readsConstructorArgumentsAndCNamespace() throws IOException {
+        SpringModel.Bean bean = readBean("""
+                <beans xmlns:c="http://www.springframework.org/schema/c">
+                  <bean class="A" c:_1-ref="clock" c:name="x">
+                    <constructor-arg index="0" ref="repository"/>
+                  </bean>
+                </beans>""");
+
+        assertEquals(List.of(
+                new SpringModel.ConstructorArgument(0, null, null, "repository"),
+                new SpringModel.ConstructorArgument(1, null, null, "clock"),
+                new SpringModel.ConstructorArgument(-1, "name", null, null)), bean.constructorArgs());
+    }
+
+    @Test
+    void qualifierNamesTheBean() {
+        assertEquals("@org.springframework.beans.factory.annotation.Qualifier(\"orderRepository\")",
+                SpringAnnotationRules.qualifier("orderRepository").render());
+    }
+}
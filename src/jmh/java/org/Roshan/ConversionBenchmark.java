@@ -0,0 +1,225 @@
+package org.Roshan;
+
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.application.WriteAction;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.openapi.vfs.VfsUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.xml.XmlFile;
+import com.intellij.psi.xml.XmlTag;
+import com.intellij.testFramework.EdtTestUtil;
+import com.intellij.testFramework.fixtures.IdeaProjectTestFixture;
+import com.intellij.testFramework.fixtures.IdeaTestFixtureFactory;
+import com.intellij.testFramework.fixtures.JavaCodeInsightTestFixture;
+import com.intellij.testFramework.fixtures.JavaTestFixtureFactory;
+import com.intellij.testFramework.fixtures.LightJavaCodeInsightFixtureTestCase;
+import com.intellij.testFramework.fixtures.TestFixtureBuilder;
+import org.Roshan.core.HibernateAnnotationRules;
+import org.Roshan.core.HibernateMappingReader;
+import org.Roshan.core.HibernateModel;
+import org.Roshan.core.PlannedAnnotation;
+import org.Roshan.core.XmlElement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the Spring and Hibernate conversion engines on generated mappings: tag discovery,
+ * conversion of tags to the core model, the core's annotation rules, planning, and a full
+ * plan-and-apply run. Run with the gc profiler (configured in build.gradle) to get the allocation
+ * rate next to the throughput.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ConversionBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int tagCount;
+
+    @Param({"true"})
+    public boolean compositeIds;
+
+    @Param({"true"})
+    public boolean joinTables;
+
+    @Param({"2"})
+    public int constructorArgs;
+
+    private JavaCodeInsightTestFixture fixture;
+    private Project project;
+    private final HibernateXmlToAnnotationsAction hibernateAction = new HibernateXmlToAnnotationsAction();
+    private final SpringXmlToAnnotationsAction springAction = new SpringXmlToAnnotationsAction();
+
+    private Map<VirtualFile, String> javaSources;
+    private XmlFile hibernateFile;
+    private XmlFile springFile;
+    private TextRange hibernateSelection;
+    private List<XmlTag> classTags;
+    private List<XmlElement> classElements;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        IdeaTestFixtureFactory factory = IdeaTestFixtureFactory.getFixtureFactory();
+        TestFixtureBuilder<IdeaProjectTestFixture> builder =
+                factory.createLightFixtureBuilder(LightJavaCodeInsightFixtureTestCase.JAVA_17, "conversion-benchmark");
+        fixture = JavaTestFixtureFactory.getFixtureFactory().createCodeInsightFixture(builder.getFixture());
+        EdtTestUtil.runInEdtAndWait(fixture::setUp);
+        project = fixture.getProject();
+
+        MappingDocumentGenerator.GeneratedMapping hibernateMapping =
+                MappingDocumentGenerator.hibernateMapping(tagCount, compositeIds, joinTables);
+        MappingDocumentGenerator.GeneratedMapping springMapping =
+                MappingDocumentGenerator.springBeans(tagCount, constructorArgs);
+
+        javaSources = new LinkedHashMap<>();
+        EdtTestUtil.runInEdtAndWait(() -> {
+            addJavaSources(hibernateMapping.javaSources());
+            addJavaSources(springMapping.javaSources());
+            hibernateFile = (XmlFile) fixture.addFileToProject("mapping.hbm.xml", hibernateMapping.xml());
+            springFile = (XmlFile) fixture.addFileToProject("context.xml", springMapping.xml());
+        });
+
+        ReadAction.run(() -> {
+            int length = hibernateFile.getTextLength();
+            hibernateSelection = new TextRange(length / 2, Math.min(length, length / 2 + length / 10));
+            classTags = hibernateAction.getClassTagsToProcess(hibernateFile.getRootTag(), null);
+            classElements = new ArrayList<>(classTags.size());
+            for (XmlTag tag : classTags) {
+                classElements.add(PsiXmlElements.toElement(tag));
+            }
+        });
+    }
+
+    private void addJavaSources(Map<String, String> sources) {
+        sources.forEach((path, text) -> {
+            PsiFile psiFile = fixture.addFileToProject(path, text);
+            javaSources.put(psiFile.getVirtualFile(), text);
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        EdtTestUtil.runInEdtAndWait(fixture::tearDown);
+    }
+
+    @Benchmark
+    public List<XmlTag> hibernateTagDiscovery() {
+        return ReadAction.compute(() -> hibernateAction.getClassTagsToProcess(hibernateFile.getRootTag(), null));
+    }
+
+    @Benchmark
+    public List<XmlTag> hibernateSelectionTagDiscovery() {
+        return ReadAction.compute(
+                () -> hibernateAction.getClassTagsToProcess(hibernateFile.getRootTag(), hibernateSelection));
+    }
+
+    @Benchmark
+    public List<XmlTag> springTagDiscovery() {
+        return ReadAction.compute(() -> springAction.getTagsToProcess(springFile, null));
+    }
+
+    @Benchmark
+    public void psiToCoreElements(Blackhole blackhole) {
+        ReadAction.run(() -> {
+            for (XmlTag tag : classTags) {
+                blackhole.consume(PsiXmlElements.toElement(tag));
+            }
+        });
+    }
+
+    /**
+     * Reading the model and computing the annotation texts in the core, without any PSI access.
+     */
+    @Benchmark
+    public void coreAnnotationRules(Blackhole blackhole) {
+        for (XmlElement element : classElements) {
+            HibernateModel.Entity entity = HibernateMappingReader.readEntity(element, null);
+            for (PlannedAnnotation annotation : HibernateAnnotationRules.plan(entity)) {
+                blackhole.consume(annotation.spec().render());
+            }
+        }
+    }
+
+    @Benchmark
+    public MigrationPlan hibernatePlanning() {
+        return ReadAction.compute(() -> hibernateAction.buildMigrationPlan(
+                new ClassResolutionCache(project), hibernateFile, null));
+    }
+
+    @Benchmark
+    public MigrationPlan springPlanning() {
+        return ReadAction.compute(() -> springAction.buildMigrationPlan(
+                new ClassResolutionCache(project), springFile, null));
+    }
+
+    /**
+     * Restores the generated Java sources before every invocation of the benchmarks using it,
+     * so every end-to-end run starts from unannotated classes.
+     */
+    @State(Scope.Benchmark)
+    public static class PristineSources {
+
+        @Setup(Level.Invocation)
+        public void restore(ConversionBenchmark benchmark) {
+            benchmark.restoreJavaSources();
+        }
+    }
+
+    void restoreJavaSources() {
+        EdtTestUtil.runInEdtAndWait(() -> {
+            WriteAction.run(() -> {
+                for (Map.Entry<VirtualFile, String> source : javaSources.entrySet()) {
+                    try {
+                        VfsUtil.saveText(source.getKey(), source.getValue());
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            });
+            PsiDocumentManager.getInstance(project).commitAllDocuments();
+        });
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void hibernateEndToEnd(PristineSources sources) {
+        convert(hibernateFile, hibernateAction::buildMigrationPlan, HibernateXmlToAnnotationsAction.COMMAND_NAME);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void springEndToEnd(PristineSources sources) {
+        convert(springFile, springAction::buildMigrationPlan, SpringXmlToAnnotationsAction.COMMAND_NAME);
+    }
+
+    private interface Planner {
+        MigrationPlan plan(ClassResolutionCache classes, XmlFile xmlFile, TextRange selection);
+    }
+
+    private void convert(XmlFile xmlFile, Planner planner, String commandName) {
+        MigrationPlan plan = ReadAction.compute(
+                () -> planner.plan(new ClassResolutionCache(project), xmlFile, null));
+        EdtTestUtil.runInEdtAndWait(() -> MigrationPlanApplier.apply(project, plan, commandName));
+    }
+}
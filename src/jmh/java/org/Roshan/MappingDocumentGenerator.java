@@ -0,0 +1,141 @@
+package org.Roshan;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Generates synthetic {@code hibernate-mapping} and {@code beans} documents of a given size,
+ * together with the Java sources of the classes they map.
+ */
+final class MappingDocumentGenerator {
+    static final String PACKAGE = "bench";
+
+    /**
+     * Tags generated per Hibernate class: class, id (or composite-id with its key tags),
+     * three properties, a many-to-one and a many-to-many with its join table.
+     */
+    static final int TAGS_PER_CLASS = 10;
+
+    /**
+     * Tags generated per Spring bean: bean, two properties and two constructor args.
+     */
+    static final int TAGS_PER_BEAN = 5;
+
+    private MappingDocumentGenerator() {
+    }
+
+    /**
+     * A generated XML document and the Java sources it refers to, keyed by relative path.
+     */
+    record GeneratedMapping(String xml, Map<String, String> javaSources) {
+    }
+
+    /**
+     * Generates a Hibernate mapping with about {@code tagCount} tags.
+     *
+     * @param tagCount     Approximate number of XML tags, 10 to 100k
+     * @param compositeIds Whether every other class uses a composite-id instead of an id
+     * @param joinTables   Whether many-to-many relations get a join-table
+     */
+    static GeneratedMapping hibernateMapping(int tagCount, boolean compositeIds, boolean joinTables) {
+        int classCount = Math.max(1, tagCount / TAGS_PER_CLASS);
+        StringBuilder xml = new StringBuilder(classCount * 700);
+        Map<String, String> javaSources = new LinkedHashMap<>();
+
+        xml.append("<?xml version=\"1.0\"?>\n<hibernate-mapping>\n");
+        for (int i = 0; i < classCount; i++) {
+            boolean compositeId = compositeIds && i % 2 == 1;
+            String className = "Entity" + i;
+            String parentName = "Entity" + (i + 1) % classCount;
+
+            xml.append("  <class name=\"").append(PACKAGE).append('.').append(className)
+                    .append("\" table=\"ENTITY_").append(i).append("\" schema=\"BENCH\">\n");
+            if (compositeId) {
+                xml.append("    <composite-id name=\"key\">\n")
+                        .append("      <class name=\"").append(PACKAGE).append('.').append(className).append("Key\">\n")
+                        .append("        <key-property name=\"code\" column=\"CODE\" length=\"32\"/>\n")
+                        .append("        <key-many-to-one name=\"owner\" column=\"OWNER_ID\"/>\n")
+                        .append("      </class>\n")
+                        .append("    </composite-id>\n");
+                javaSources.put(PACKAGE + "/" + className + "Key.java", javaClass(className + "Key",
+                        "String code", parentName + " owner"));
+            } else {
+                xml.append("    <id name=\"id\" column=\"ID\" generator-class=\"sequence\"/>\n");
+            }
+            xml.append("    <property name=\"name\" column=\"NAME\" length=\"255\" not-null=\"true\"/>\n")
+                    .append("    <property name=\"code\" column=\"CODE\" length=\"32\" unique=\"true\"/>\n")
+                    .append("    <property name=\"created\" column=\"CREATED\" type=\"timestamp\"/>\n")
+                    .append("    <many-to-one name=\"parent\" column=\"PARENT_ID\" fetch=\"lazy\"/>\n")
+                    .append("    <many-to-many name=\"related\" fetch=\"lazy\">\n");
+            if (joinTables) {
+                xml.append("      <join-table name=\"ENTITY_").append(i).append("_RELATED\">\n")
+                        .append("        <join-column name=\"ENTITY_ID\" referenced-column-name=\"ID\"/>\n")
+                        .append("      </join-table>\n");
+            }
+            xml.append("    </many-to-many>\n")
+                    .append("  </class>\n");
+
+            javaSources.put(PACKAGE + "/" + className + ".java", javaClass(className,
+                    compositeId ? className + "Key key" : "Long id",
+                    "String name",
+                    "String code",
+                    "java.util.Date created",
+                    parentName + " parent",
+                    "java.util.Set<" + parentName + "> related"));
+        }
+        xml.append("</hibernate-mapping>\n");
+        return new GeneratedMapping(xml.toString(), javaSources);
+    }
+
+    /**
+     * Generates a Spring context with about {@code tagCount} tags.
+     *
+     * @param tagCount        Approximate number of XML tags, 10 to 100k
+     * @param constructorArgs Number of constructor-arg tags per bean
+     */
+    static GeneratedMapping springBeans(int tagCount, int constructorArgs) {
+        int beanCount = Math.max(1, tagCount / TAGS_PER_BEAN);
+        StringBuilder xml = new StringBuilder(beanCount * 300);
+        Map<String, String> javaSources = new LinkedHashMap<>();
+
+        xml.append("<?xml version=\"1.0\"?>\n<beans>\n");
+        for (int i = 0; i < beanCount; i++) {
+            String className = "Bean" + i;
+            String dependencyName = "Bean" + (i + 1) % beanCount;
+
+            xml.append("  <bean id=\"bean").append(i).append("\" class=\"")
+                    .append(PACKAGE).append('.').append(className).append("\">\n")
+                    .append("    <property name=\"dependency\" ref=\"bean").append((i + 1) % beanCount).append("\"/>\n")
+                    .append("    <property name=\"name\" value=\"bean").append(i).append("\"/>\n");
+            for (int arg = 0; arg < constructorArgs; arg++) {
+                xml.append("    <constructor-arg index=\"").append(arg).append("\" value=\"").append(arg).append("\"/>\n");
+            }
+            xml.append("  </bean>\n");
+
+            StringBuilder constructor = new StringBuilder("  public ").append(className).append("(");
+            for (int arg = 0; arg < constructorArgs; arg++) {
+                if (arg > 0) constructor.append(", ");
+                constructor.append("String arg").append(arg);
+            }
+            constructor.append(") {}\n");
+
+            javaSources.put(PACKAGE + "/" + className + ".java",
+                    "package " + PACKAGE + ";\n\npublic class " + className + " {\n" +
+                            "  private " + dependencyName + " dependency;\n" +
+                            "  private String name;\n\n" +
+                            constructor +
+                            "}\n");
+        }
+        xml.append("</beans>\n");
+        return new GeneratedMapping(xml.toString(), javaSources);
+    }
+
+    private static String javaClass(String className, String... fields) {
+        StringBuilder source = new StringBuilder("package ").append(PACKAGE).append(";\n\n")
+                .append("public class ").append(className).append(" {\n");
+        for (String field : fields) {
+            source.append("  private ").append(field).append(";\n");
+        }
+        return source.append("}\n").toString();
+    }
+}
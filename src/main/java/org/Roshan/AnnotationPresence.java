@@ -0,0 +1,156 @@
+package org.Roshan;
+
+import com.intellij.psi.PsiAnnotation;
+import com.intellij.psi.PsiModifierList;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Snapshot of the annotations on one modifier list. The annotations are scanned and their names
+ * resolved once; afterwards presence checks for the JPA, Hibernate and Spring annotations the
+ * migration knows are a bit test, and other names a hash lookup. Annotations added later are
+ * recorded with {@link #add}, so the snapshot stays valid while an element is planned or applied.
+ * Like the old per-call check, an unresolved annotation written with a simple name counts as
+ * every known annotation with that simple name.
+ */
+final class AnnotationPresence {
+    private static final List<String> KNOWN_ANNOTATIONS = List.of(
+            "jakarta.persistence.Entity",
+            "jakarta.persistence.Table",
+            "jakarta.persistence.Id",
+            "jakarta.persistence.GeneratedValue",
+            "jakarta.persistence.SequenceGenerator",
+            "jakarta.persistence.TableGenerator",
+            "jakarta.persistence.Column",
+            "jakarta.persistence.Temporal",
+            "jakarta.persistence.ManyToOne",
+            "jakarta.persistence.OneToMany",
+            "jakarta.persistence.ManyToMany",
+            "jakarta.persistence.JoinColumn",
+            "jakarta.persistence.JoinTable",
+            "jakarta.persistence.Embeddable",
+            "jakarta.persistence.EmbeddedId",
+            "jakarta.persistence.IdClass",
+            "jakarta.persistence.ElementCollection",
+            "jakarta.persistence.CollectionTable",
+            "jakarta.persistence.OrderColumn",
+            "jakarta.persistence.MapKeyColumn",
+            "jakarta.persistence.Cacheable",
+            "jakarta.persistence.Version",
+            "jakarta.persistence.Basic",
+            "org.hibernate.annotations.GenericGenerator",
+            "org.hibernate.annotations.BatchSize",
+            "org.hibernate.annotations.Fetch",
+            "org.hibernate.annotations.LazyCollection",
+            "org.hibernate.annotations.Cache",
+            "org.hibernate.annotations.DynamicUpdate",
+            "org.hibernate.annotations.DynamicInsert",
+            "org.hibernate.annotations.Immutable",
+            "org.hibernate.annotations.SelectBeforeUpdate",
+            "org.hibernate.annotations.OptimisticLocking",
+            "org.hibernate.annotations.Polymorphism",
+            "org.hibernate.annotations.Formula",
+            "org.springframework.stereotype.Component",
+            "org.springframework.stereotype.Service",
+            "org.springframework.stereotype.Repository",
+            "org.springframework.stereotype.Controller",
+            "org.springframework.web.bind.annotation.RestController",
+            "org.springframework.beans.factory.annotation.Autowired",
+            "org.springframework.beans.factory.annotation.Value",
+            "org.springframework.beans.factory.annotation.Qualifier"
+    );
+
+    private static final Map<String, Long> BITS_BY_NAME = new HashMap<>();
+    private static final Map<String, Long> BITS_BY_SIMPLE_NAME = new HashMap<>();
+
+    static {
+        if (KNOWN_ANNOTATIONS.size() > Long.SIZE) {
+            throw new IllegalStateException("At most " + Long.SIZE + " known annotations fit the bit set, got "
+                    + KNOWN_ANNOTATIONS.size());
+        }
+        for (int i = 0; i < KNOWN_ANNOTATIONS.size(); i++) {
+            String qualifiedName = KNOWN_ANNOTATIONS.get(i);
+            long bit = 1L << i;
+            BITS_BY_NAME.put(qualifiedName, bit);
+            BITS_BY_SIMPLE_NAME.merge(AnnotationSupport.getSimpleName(qualifiedName), bit, (a, b) -> a | b);
+        }
+    }
+
+    /**
+     * {@code @Component} and the stereotypes that are components themselves.
+     */
+    static final long COMPONENT_STEREOTYPES = bitsOf(
+            "org.springframework.stereotype.Component",
+            "org.springframework.stereotype.Service",
+            "org.springframework.stereotype.Repository",
+            "org.springframework.stereotype.Controller",
+            "org.springframework.web.bind.annotation.RestController");
+
+    private long knownBits;
+    private final Set<String> otherNames = new HashSet<>();
+
+    private AnnotationPresence() {
+    }
+
+    /**
+     * Scans the modifier list once.
+     */
+    static AnnotationPresence of(PsiModifierList modifierList) {
+        AnnotationPresence presence = new AnnotationPresence();
+        for (PsiAnnotation annotation : modifierList.getAnnotations()) {
+            String qualifiedName = annotation.getQualifiedName();
+            if (qualifiedName != null) {
+                presence.add(qualifiedName);
+            }
+        }
+        return presence;
+    }
+
+    /**
+     * Bit mask of known annotations, for checks like "any of these stereotypes".
+     */
+    static long bitsOf(String... qualifiedNames) {
+        long bits = 0;
+        for (String qualifiedName : qualifiedNames) {
+            Long bit = BITS_BY_NAME.get(qualifiedName);
+            if (bit == null) {
+                throw new IllegalArgumentException("Not a known annotation: " + qualifiedName);
+            }
+            bits |= bit;
+        }
+        return bits;
+    }
+
+    boolean has(String qualifiedName) {
+        Long bit = BITS_BY_NAME.get(qualifiedName);
+        if (bit != null) {
+            return (knownBits & bit) != 0;
+        }
+        return otherNames.contains(qualifiedName) || otherNames.contains(AnnotationSupport.getSimpleName(qualifiedName));
+    }
+
+    boolean hasAny(long bits) {
+        return (knownBits & bits) != 0;
+    }
+
+    /**
+     * Records an annotation as present, e.g. once it has been planned or inserted.
+     */
+    void add(String qualifiedName) {
+        Long bit = BITS_BY_NAME.get(qualifiedName);
+        if (bit != null) {
+            knownBits |= bit;
+            return;
+        }
+
+        otherNames.add(qualifiedName);
+        if (qualifiedName.indexOf('.') < 0) {
+            // Unresolved simple name, matches any known annotation of that name
+            knownBits |= BITS_BY_SIMPLE_NAME.getOrDefault(qualifiedName, 0L);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package org.Roshan;
+
+/**
+ * Annotation text helpers shared by the planning and the apply phase.
+ */
+final class AnnotationSupport {
+
+    private AnnotationSupport() {
+    }
+
+    /**
+     * Extracts the fully qualified name from an annotation text.
+     *
+     * @param annotationText The full annotation text
+     * @return The qualified name of the annotation
+     */
+    static String extractQualifiedName(String annotationText) {
+        if (annotationText == null || annotationText.isEmpty()) {
+            return null;
+        }
+
+        // Remove the @ symbol if present
+        String text = annotationText.startsWith("@") ?
+                annotationText.substring(1) : annotationText;
+
+        // Extract the name part before any parentheses
+        int parenthesesIndex = text.indexOf('(');
+        return parenthesesIndex > 0 ?
+                text.substring(0, parenthesesIndex).trim() :
+                text.trim();
+    }
+
+    /**
+     * Gets the simple name of an annotation from its qualified name.
+     *
+     * @param qualifiedName The qualified name of the annotation
+     * @return The simple name
+     */
+    static String getSimpleName(String qualifiedName) {
+        int lastDot = qualifiedName.lastIndexOf('.');
+        return lastDot > 0 ? qualifiedName.substring(lastDot + 1) : qualifiedName;
+    }
+}
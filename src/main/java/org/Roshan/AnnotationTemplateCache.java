@@ -0,0 +1,67 @@
+package org.Roshan;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiAnnotation;
+import com.intellij.psi.PsiElementFactory;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Parses every distinct annotation text once and hands out copies of the parsed prototype.
+ * Copying a prototype tree is much cheaper than running the Java parser again, and most of the
+ * annotations of a run are repeated: the constant ones are kept for the whole run, the
+ * parameterized ones (column names, lengths...) live in a bounded most-recently-used map.
+ * Must only be used from the thread applying the plan.
+ */
+final class AnnotationTemplateCache {
+    private static final int MAX_PARAMETERIZED_TEMPLATES = 2048;
+
+    /**
+     * Annotation texts without attribute values, these are kept for the whole run.
+     */
+    private static final Set<String> CONSTANT_ANNOTATIONS = Set.of(
+            "@jakarta.persistence.Id",
+            "@jakarta.persistence.Entity",
+            "@jakarta.persistence.Embeddable",
+            "@jakarta.persistence.EmbeddedId",
+            "@jakarta.persistence.ManyToOne",
+            "@org.springframework.stereotype.Component",
+            "@org.springframework.beans.factory.annotation.Autowired"
+    );
+
+    private final PsiElementFactory elementFactory;
+    private final Map<String, PsiAnnotation> constantTemplates = new HashMap<>();
+    private final Map<String, PsiAnnotation> parameterizedTemplates =
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, PsiAnnotation> eldest) {
+                    return size() > MAX_PARAMETERIZED_TEMPLATES;
+                }
+            };
+
+    AnnotationTemplateCache(Project project) {
+        this.elementFactory = PsiElementFactory.getInstance(project);
+    }
+
+    /**
+     * Returns a fresh, unattached annotation for the given text.
+     *
+     * @param annotationText The full annotation text
+     * @return A copy of the cached prototype, ready to be added to a modifier list
+     */
+    PsiAnnotation createAnnotation(String annotationText) {
+        Map<String, PsiAnnotation> templates = CONSTANT_ANNOTATIONS.contains(annotationText)
+                ? constantTemplates
+                : parameterizedTemplates;
+
+        PsiAnnotation prototype = templates.get(annotationText);
+        if (prototype == null || !prototype.isValid()) {
+            prototype = elementFactory.createAnnotationFromText(annotationText, null);
+            templates.put(annotationText, prototype);
+        }
+        return (PsiAnnotation) prototype.copy();
+    }
+}
@@ -0,0 +1,135 @@
+package org.Roshan;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.JavaPsiFacade;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiField;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.PsiModificationTracker;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches {@link JavaPsiFacade#findClass} results for one migration run. Found classes and
+ * misses are both remembered, so a class named by many tags hits the index only once.
+ * The cache is dropped as soon as the PSI modification count changes.
+ * Safe to share between the threads planning a run concurrently.
+ */
+public final class ClassResolutionCache {
+    private final Project project;
+    private final JavaPsiFacade psiFacade;
+    private final PsiModificationTracker modificationTracker;
+    private final MigrationMetrics metrics;
+    private final GlobalSearchScope projectScope;
+    private final GlobalSearchScope allScope;
+
+    private final Map<String, Optional<PsiClass>> projectClasses = new ConcurrentHashMap<>();
+    private final Map<String, Optional<PsiClass>> allClasses = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private volatile long modificationCount;
+
+    public ClassResolutionCache(Project project) {
+        this.project = project;
+        this.psiFacade = JavaPsiFacade.getInstance(project);
+        this.modificationTracker = PsiModificationTracker.getInstance(project);
+        this.metrics = MigrationMetrics.getInstance(project);
+        this.projectScope = GlobalSearchScope.projectScope(project);
+        this.allScope = GlobalSearchScope.allScope(project);
+        this.modificationCount = modificationTracker.getModificationCount();
+    }
+
+    public Project getProject() {
+        return project;
+    }
+
+    /**
+     * Finds a class in the project sources, as done for mapped entity and bean classes.
+     */
+    @Nullable
+    public PsiClass findProjectClass(String qualifiedName) {
+        return find(projectClasses, qualifiedName, projectScope);
+    }
+
+    /**
+     * Finds a class in the project and its libraries, as done for annotations and embedded ids.
+     */
+    @Nullable
+    public PsiClass findClass(String qualifiedName) {
+        return find(allClasses, qualifiedName, allScope);
+    }
+
+    /**
+     * Looks up a field declared by a mapped class, counting the mappings whose field is missing
+     * on the plan being built. Fields are not cached, each mapping names a field once.
+     */
+    @Nullable
+    public PsiField findField(PsiClass psiClass, String fieldName, MigrationPlan.Builder plan) {
+        MigrationEvents.FieldLookup event = new MigrationEvents.FieldLookup();
+        event.begin();
+        PsiField field = psiClass.findFieldByName(fieldName, false);
+        event.end();
+        if (event.shouldCommit()) {
+            event.element = psiClass.getQualifiedName() + "." + fieldName;
+            event.found = field != null;
+            event.commit();
+        }
+
+        if (field == null) {
+            plan.fieldNotFound();
+        }
+        return field;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    @Nullable
+    private PsiClass find(Map<String, Optional<PsiClass>> cache, String qualifiedName, GlobalSearchScope scope) {
+        if (qualifiedName == null) return null;
+        invalidateIfModified();
+
+        Optional<PsiClass> cached = cache.get(qualifiedName);
+        if (cached != null && cached.map(PsiClass::isValid).orElse(true)) {
+            hits.incrementAndGet();
+            return cached.orElse(null);
+        }
+
+        misses.incrementAndGet();
+        MigrationEvents.ClassResolution event = new MigrationEvents.ClassResolution();
+        event.begin();
+        long start = System.nanoTime();
+        PsiClass psiClass = psiFacade.findClass(qualifiedName, scope);
+        metrics.classResolved(System.nanoTime() - start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.className = qualifiedName;
+            event.found = psiClass != null;
+            event.commit();
+        }
+        cache.put(qualifiedName, Optional.ofNullable(psiClass));
+        return psiClass;
+    }
+
+    private void invalidateIfModified() {
+        long currentCount = modificationTracker.getModificationCount();
+        if (currentCount != modificationCount) {
+            synchronized (this) {
+                if (currentCount != modificationCount) {
+                    projectClasses.clear();
+                    allClasses.clear();
+                    modificationCount = currentCount;
+                }
+            }
+        }
+    }
+}
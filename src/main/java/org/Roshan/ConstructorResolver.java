@@ -0,0 +1,187 @@
+package org.Roshan;
+
+import com.intellij.psi.CommonClassNames;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiClassType;
+import com.intellij.psi.PsiMethod;
+import com.intellij.psi.PsiParameter;
+import com.intellij.psi.PsiPrimitiveType;
+import com.intellij.psi.PsiType;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.InheritanceUtil;
+import com.intellij.psi.util.PsiUtil;
+import com.intellij.psi.util.TypeConversionUtil;
+import org.Roshan.core.SpringModel;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds the constructor a Spring bean definition calls, from the constructor arguments the
+ * conversion core read from its {@code <constructor-arg>} tags and {@code c:} namespace
+ * attributes. Arguments are placed by index, then by parameter name, and the rest in
+ * declaration order; every placement must fit the parameter's type given by the
+ * {@code type} attribute, the referenced bean's class or the kind of literal value. Among the
+ * fitting constructors the one with the most exact type matches wins, as Spring prefers.
+ */
+final class ConstructorResolver {
+    private static final int MISMATCH = -1;
+    private static final int UNKNOWN = 0;
+    private static final int COMPATIBLE = 1;
+    private static final int EXACT = 2;
+
+    /**
+     * Parameter names and types of a constructor, computed once per class and PSI change.
+     */
+    private record Signature(PsiMethod constructor, String[] parameterNames, PsiType[] parameterTypes) {
+    }
+
+    /**
+     * A resolved constructor and, per argument, the parameter it was placed on.
+     */
+    record Resolution(PsiMethod constructor, Map<SpringModel.ConstructorArgument, PsiParameter> parameters) {
+    }
+
+    private ConstructorResolver() {
+    }
+
+    /**
+     * Resolves the constructor the arguments call, or null if none fits.
+     * Must be called in a read action.
+     */
+    @Nullable
+    static Resolution resolve(PsiClass psiClass, List<SpringModel.ConstructorArgument> args, SpringBeanGraph.BeanContext beans) {
+        List<Signature> candidates = getSignatures(psiClass).get(args.size());
+        if (candidates == null) return null;
+
+        Resolution best = null;
+        int bestScore = MISMATCH;
+        for (Signature signature : candidates) {
+            SpringModel.ConstructorArgument[] placement = place(signature, args);
+            if (placement == null) continue;
+
+            int score = 0;
+            for (int i = 0; i < placement.length && score != MISMATCH; i++) {
+                int match = matchType(placement[i], signature.parameterTypes()[i], beans);
+                score = match == MISMATCH ? MISMATCH : score + match;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                best = toResolution(signature, placement);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Signatures of the class's constructors grouped by parameter count, so overloads with a
+     * different arity are never looked at.
+     */
+    private static Map<Integer, List<Signature>> getSignatures(PsiClass psiClass) {
+        return CachedValuesManager.getCachedValue(psiClass, () -> {
+            Map<Integer, List<Signature>> signatures = new HashMap<>();
+            for (PsiMethod constructor : psiClass.getConstructors()) {
+                PsiParameter[] parameters = constructor.getParameterList().getParameters();
+                String[] names = new String[parameters.length];
+                PsiType[] types = new PsiType[parameters.length];
+                for (int i = 0; i < parameters.length; i++) {
+                    names[i] = parameters[i].getName();
+                    types[i] = parameters[i].getType();
+                }
+                signatures.computeIfAbsent(parameters.length, key -> new ArrayList<>())
+                        .add(new Signature(constructor, names, types));
+            }
+            return CachedValueProvider.Result.create(signatures, psiClass);
+        });
+    }
+
+    /**
+     * Places the arguments on parameter positions: explicit indexes first, then names,
+     * then the remaining arguments in order.
+     *
+     * @return the argument per parameter position, or null if two arguments claim one position
+     */
+    @Nullable
+    private static SpringModel.ConstructorArgument[] place(Signature signature, List<SpringModel.ConstructorArgument> args) {
+        int count = signature.parameterNames().length;
+        SpringModel.ConstructorArgument[] placement = new SpringModel.ConstructorArgument[count];
+        List<SpringModel.ConstructorArgument> unplaced = new ArrayList<>();
+
+        for (SpringModel.ConstructorArgument arg : args) {
+            int position = arg.index();
+            if (position < 0 && arg.name() != null) {
+                position = indexOf(signature.parameterNames(), arg.name());
+                if (position < 0) return null;
+            }
+            if (position < 0) {
+                unplaced.add(arg);
+                continue;
+            }
+            if (position >= count || placement[position] != null) return null;
+            placement[position] = arg;
+        }
+
+        int next = 0;
+        for (SpringModel.ConstructorArgument arg : unplaced) {
+            while (next < count && placement[next] != null) next++;
+            if (next == count) return null;
+            placement[next] = arg;
+        }
+        return placement;
+    }
+
+    private static int matchType(SpringModel.ConstructorArgument arg, PsiType parameterType, SpringBeanGraph.BeanContext beans) {
+        if (arg.type() != null) {
+            String erasedType = TypeConversionUtil.erasure(parameterType).getCanonicalText();
+            return erasedType.equals(arg.type()) || erasedType.endsWith("." + arg.type()) ? EXACT : MISMATCH;
+        }
+
+        if (arg.ref() != null) {
+            if (parameterType instanceof PsiPrimitiveType) return MISMATCH;
+            PsiClass parameterClass = PsiUtil.resolveClassInClassTypeOnly(parameterType);
+            SpringBeanGraph.BeanDefinition bean = beans.findBean(arg.ref());
+            String beanClassName = bean != null ? beans.getEffectiveClassName(bean) : null;
+            if (parameterClass == null || beanClassName == null) return UNKNOWN;
+            if (beanClassName.equals(parameterClass.getQualifiedName())) return EXACT;
+
+            PsiClass beanClass = beans.findClass(beanClassName);
+            if (beanClass == null) return UNKNOWN;
+            return InheritanceUtil.isInheritorOrSelf(beanClass, parameterClass, true) ? COMPATIBLE : MISMATCH;
+        }
+
+        // A literal value or an inner bean, values convert to primitives, strings, enums and the like
+        return isValueType(parameterType) ? COMPATIBLE : UNKNOWN;
+    }
+
+    private static boolean isValueType(PsiType type) {
+        if (type instanceof PsiPrimitiveType) return true;
+        if (!(type instanceof PsiClassType classType)) return false;
+        if (PsiPrimitiveType.getUnboxedType(type) != null) return true;
+        if (classType.equalsToText(CommonClassNames.JAVA_LANG_STRING)) return true;
+
+        PsiClass psiClass = classType.resolve();
+        return psiClass != null && psiClass.isEnum();
+    }
+
+    private static Resolution toResolution(Signature signature, SpringModel.ConstructorArgument[] placement) {
+        PsiParameter[] parameters = signature.constructor().getParameterList().getParameters();
+        // Identity, two c: attributes may describe equal arguments
+        Map<SpringModel.ConstructorArgument, PsiParameter> parameterByArg = new IdentityHashMap<>();
+        for (int i = 0; i < placement.length; i++) {
+            parameterByArg.put(placement[i], parameters[i]);
+        }
+        return new Resolution(signature.constructor(), parameterByArg);
+    }
+
+    private static int indexOf(String[] names, String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) return i;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,87 @@
+package org.Roshan;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiAnnotation;
+import com.intellij.psi.PsiImportList;
+import com.intellij.psi.PsiImportStatementBase;
+import com.intellij.psi.PsiJavaFile;
+import com.intellij.psi.codeStyle.JavaCodeStyleManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Import handling for one apply run. Annotations are inserted fully qualified and only registered
+ * here; at the end the qualified references of every touched file's inserted annotations are
+ * shortened once, which adds the imports they need, so the output compiles without an
+ * "Optimize imports" pass.
+ */
+final class DeferredImportPass {
+    private final Project project;
+    private final Map<PsiJavaFile, List<PsiAnnotation>> insertedAnnotations = new LinkedHashMap<>();
+    private final List<PsiImportStatementBase> addedImports = new ArrayList<>();
+
+    DeferredImportPass(Project project) {
+        this.project = project;
+    }
+
+    /**
+     * Remembers an inserted annotation for shortening.
+     */
+    void register(PsiAnnotation insertedAnnotation) {
+        if (!(insertedAnnotation.getContainingFile() instanceof PsiJavaFile javaFile)) return;
+
+        insertedAnnotations.computeIfAbsent(javaFile, key -> new ArrayList<>()).add(insertedAnnotation);
+    }
+
+    /**
+     * Shortens the registered annotations, one file at a time. Shortening imports each class
+     * unless another one with the same simple name is imported already, in which case the
+     * reference stays qualified. Must run inside the write command that inserted the annotations.
+     */
+    void run() {
+        JavaCodeStyleManager codeStyleManager = JavaCodeStyleManager.getInstance(project);
+
+        insertedAnnotations.forEach((javaFile, annotations) -> {
+            if (!javaFile.isValid()) return;
+
+            MigrationEvents.ImportHandling event = new MigrationEvents.ImportHandling();
+            event.begin();
+            Set<PsiImportStatementBase> importsBefore = Set.of(getImports(javaFile));
+            for (PsiAnnotation annotation : annotations) {
+                if (annotation.isValid()) {
+                    codeStyleManager.shortenClassReferences(annotation);
+                }
+            }
+            int importsAdded = 0;
+            for (PsiImportStatementBase importStatement : getImports(javaFile)) {
+                if (!importsBefore.contains(importStatement)) {
+                    addedImports.add(importStatement);
+                    importsAdded++;
+                }
+            }
+            event.end();
+            if (event.shouldCommit()) {
+                event.fileName = javaFile.getName();
+                event.importsAdded = importsAdded;
+                event.annotationsShortened = annotations.size();
+                event.commit();
+            }
+        });
+    }
+
+    /**
+     * The import statements {@link #run} added, so a cancelled apply can remove them.
+     */
+    List<PsiImportStatementBase> getAddedImports() {
+        return addedImports;
+    }
+
+    private static PsiImportStatementBase[] getImports(PsiJavaFile javaFile) {
+        PsiImportList importList = javaFile.getImportList();
+        return importList != null ? importList.getAllImportStatements() : PsiImportStatementBase.EMPTY_ARRAY;
+    }
+}
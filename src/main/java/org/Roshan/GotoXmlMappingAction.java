@@ -0,0 +1,84 @@
+package org.Roshan;
+
+import com.intellij.codeInsight.hint.HintManager;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.CommonDataKeys;
+import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.fileEditor.OpenFileDescriptor;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.popup.JBPopupFactory;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiJavaFile;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.ui.SimpleListCellRenderer;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Navigates from a Java class to the Spring bean or Hibernate class mapping declaring it,
+ * using {@link XmlMappingIndex} instead of parsing XML files.
+ */
+public class GotoXmlMappingAction extends AnAction {
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getRequiredData(CommonDataKeys.PROJECT);
+        Editor editor = e.getRequiredData(CommonDataKeys.EDITOR);
+        PsiFile psiFile = e.getRequiredData(CommonDataKeys.PSI_FILE);
+
+        PsiElement element = psiFile.findElementAt(editor.getCaretModel().getOffset());
+        PsiClass psiClass = PsiTreeUtil.getParentOfType(element, PsiClass.class, false);
+        String qualifiedName = psiClass != null ? psiClass.getQualifiedName() : null;
+        if (qualifiedName == null) return;
+
+        if (DumbService.isDumb(project)) {
+            DumbService.getInstance(project).showDumbModeNotification(
+                    "XML mappings are not available while indexing");
+            return;
+        }
+
+        List<XmlMappingIndex.MappingDeclaration> declarations =
+                XmlMappingIndex.findDeclarations(qualifiedName, GlobalSearchScope.projectScope(project));
+
+        if (declarations.isEmpty()) {
+            HintManager.getInstance().showErrorHint(editor,
+                    "No Spring or Hibernate XML mapping found for " + psiClass.getName());
+        } else if (declarations.size() == 1) {
+            navigate(project, declarations.get(0));
+        } else {
+            JBPopupFactory.getInstance()
+                    .createPopupChooserBuilder(declarations)
+                    .setTitle("XML Mappings of " + psiClass.getName())
+                    .setRenderer(SimpleListCellRenderer.create("", GotoXmlMappingAction::getPresentableText))
+                    .setItemChosenCallback(declaration -> navigate(project, declaration))
+                    .createPopup()
+                    .showInBestPositionFor(editor);
+        }
+    }
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        PsiFile psiFile = e.getData(CommonDataKeys.PSI_FILE);
+        e.getPresentation().setEnabledAndVisible(
+                project != null && psiFile instanceof PsiJavaFile
+        );
+    }
+
+    private static void navigate(Project project, XmlMappingIndex.MappingDeclaration declaration) {
+        new OpenFileDescriptor(project, declaration.file(), declaration.location().offset()).navigate(true);
+    }
+
+    private static String getPresentableText(XmlMappingIndex.MappingDeclaration declaration) {
+        String kind = declaration.location().kind() == XmlMappingIndex.MappingKind.SPRING_BEAN
+                ? "Spring bean"
+                : "Hibernate class";
+        return kind + " in " + declaration.file().getPresentableUrl();
+    }
+}
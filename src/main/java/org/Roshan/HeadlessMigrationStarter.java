@@ -0,0 +1,133 @@
+package org.Roshan;
+
+import com.intellij.ide.impl.OpenProjectTask;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ApplicationStarter;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.progress.EmptyProgressIndicator;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.project.ex.ProjectManagerEx;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.search.GlobalSearchScope;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Headless entry point for build agents:
+ * {@code idea xml-to-annotations <project path> [glob]}.
+ * Opens the project, waits for indexing, migrates every Spring and Hibernate XML file whose
+ * project-relative path matches the glob, saves the files and prints a one-line JSON summary.
+ * A glob without {@code /}, such as {@code *.hbm.xml}, is matched against file names.
+ */
+public class HeadlessMigrationStarter implements ApplicationStarter {
+    private static final Logger LOG = Logger.getInstance(HeadlessMigrationStarter.class);
+    // "**/" needs a directory, so files in the project root are matched separately
+    private static final String DEFAULT_GLOB = "{*.xml,**/*.xml}";
+    private static final String USAGE = "Usage: xml-to-annotations <project path> [glob, default " + DEFAULT_GLOB + "]";
+
+    @Override
+    public int getRequiredModality() {
+        return NOT_IN_EDT;
+    }
+
+    @Override
+    public void main(@NotNull List<String> args) {
+        // The first argument is the command name itself
+        if (args.size() < 2) {
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+
+        Path projectPath = Path.of(args.get(1)).toAbsolutePath().normalize();
+        String glob = args.size() > 2 ? args.get(2) : DEFAULT_GLOB;
+        PathMatcher matcher;
+        try {
+            matcher = FileSystems.getDefault().getPathMatcher("glob:" + glob);
+        } catch (PatternSyntaxException e) {
+            System.err.println("Invalid glob " + glob + ": " + e.getDescription());
+            System.err.println(USAGE);
+            System.exit(1);
+            return;
+        }
+        boolean matchFileName = glob.indexOf('/') < 0;
+
+        int exitCode;
+        try {
+            exitCode = migrate(projectPath, glob, file -> matches(matcher, matchFileName, projectPath, file));
+        } catch (Throwable t) {
+            LOG.warn("Migration of " + projectPath + " failed", t);
+            System.err.println("Migration of " + projectPath + " failed: " + t.getMessage());
+            exitCode = 2;
+        }
+        System.exit(exitCode);
+    }
+
+    private static int migrate(Path projectPath, String glob, Predicate<VirtualFile> fileFilter) {
+        Project project = ProjectManagerEx.getInstanceEx().openProject(projectPath, OpenProjectTask.build());
+        if (project == null) {
+            System.err.println("Cannot open project " + projectPath);
+            return 1;
+        }
+
+        try {
+            DumbService.getInstance(project).waitForSmartMode();
+
+            ProjectMigrationRunner runner = new ProjectMigrationRunner(project,
+                    GlobalSearchScope.projectScope(project), fileFilter);
+
+            ProgressIndicator indicator = new EmptyProgressIndicator();
+            ProjectMigrationRunner.Summary summary = ProgressManager.getInstance()
+                    .runProcess(() -> runner.run(indicator), indicator);
+
+            ApplicationManager.getApplication().invokeAndWait(
+                    () -> FileDocumentManager.getInstance().saveAllDocuments());
+            System.out.println(toJson(projectPath, glob, summary));
+            return 0;
+        } finally {
+            ApplicationManager.getApplication().invokeAndWait(
+                    () -> ProjectManagerEx.getInstanceEx().forceCloseProject(project));
+        }
+    }
+
+    private static boolean matches(PathMatcher matcher, boolean matchFileName, Path projectPath, VirtualFile file) {
+        try {
+            Path relativePath = projectPath.relativize(file.toNioPath());
+            if (relativePath.startsWith("..")) return false;
+            return matcher.matches(matchFileName ? relativePath.getFileName() : relativePath);
+        } catch (IllegalArgumentException | UnsupportedOperationException e) {
+            // Not a local file below the project directory
+            return false;
+        }
+    }
+
+    private static String toJson(Path projectPath, String glob, ProjectMigrationRunner.Summary summary) {
+        return "{" +
+                "\"project\":\"" + escape(projectPath.toString()) + "\"," +
+                "\"glob\":\"" + escape(glob) + "\"," +
+                "\"files\":" + summary.files() + "," +
+                "\"springFiles\":" + summary.springFiles() + "," +
+                "\"hibernateFiles\":" + summary.hibernateFiles() + "," +
+                "\"plannedAnnotations\":" + summary.plannedAnnotations() + "," +
+                "\"planningMillis\":" + summary.planningMillis() + "," +
+                "\"applyMillis\":" + summary.applyMillis() + "," +
+                "\"classCacheHits\":" + summary.classCacheHits() + "," +
+                "\"classCacheMisses\":" + summary.classCacheMisses() + "," +
+                "\"filesPerSecond\":" + String.format(Locale.ROOT, "%.2f", summary.filesPerSecond()) +
+                "}";
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
@@ -0,0 +1,288 @@
+package org.Roshan;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.JavaPsiFacade;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.PsiModifierList;
+import com.intellij.psi.XmlElementFactory;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.xml.XmlFile;
+import com.intellij.psi.xml.XmlTag;
+import org.Roshan.core.HibernateMappingReader;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Migrates the whole model of a session factory in one run, starting from a
+ * {@code hibernate.cfg.xml} or a JPA {@code persistence.xml}. Every mapping file the descriptor
+ * lists, directly or through a mapped class, is planned concurrently and applied with shared
+ * caches. Afterwards the descriptor's mapping file entries are replaced by registrations of the
+ * now annotated classes.
+ */
+final class HibernateConfigurationMigration {
+    private static final Logger LOG = Logger.getInstance(HibernateConfigurationMigration.class);
+
+    static final String HIBERNATE_CONFIGURATION_TAG = "hibernate-configuration";
+    static final String PERSISTENCE_TAG = "persistence";
+    private static final String SESSION_FACTORY_TAG = "session-factory";
+    private static final String PERSISTENCE_UNIT_TAG = "persistence-unit";
+    private static final String MAPPING_TAG = "mapping";
+    private static final String MAPPING_FILE_TAG = "mapping-file";
+    private static final String JAR_FILE_TAG = "jar-file";
+    private static final String CLASS_TAG = "class";
+
+    /**
+     * A mapping file entry of the descriptor and the mapping file it names.
+     */
+    private record MappingEntry(XmlTag tag, VirtualFile file) {
+    }
+
+    private HibernateConfigurationMigration() {
+    }
+
+    static boolean isConfiguration(@Nullable XmlTag rootTag) {
+        return rootTag != null && (HIBERNATE_CONFIGURATION_TAG.equals(rootTag.getName())
+                || PERSISTENCE_TAG.equals(rootTag.getName()));
+    }
+
+    /**
+     * Runs the migration of the descriptor's mapping files as a cancellable background task.
+     */
+    static void migrate(Project project, XmlFile descriptor) {
+        new Task.Backgroundable(project, "Migrating mappings of " + descriptor.getName() + " to annotations", true) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                indicator.setText("Collecting mapping files of " + descriptor.getName());
+                List<MappingEntry> entries = DumbService.getInstance(project).runReadActionInSmartMode(
+                        () -> findMappingEntries(project, descriptor));
+                Set<VirtualFile> mappingFiles = new LinkedHashSet<>();
+                for (MappingEntry entry : entries) {
+                    mappingFiles.add(entry.file());
+                }
+
+                ProjectMigrationRunner.Summary summary = new ProjectMigrationRunner(project,
+                        GlobalSearchScope.projectScope(project), file -> true)
+                        .runHibernateFiles(mappingFiles, indicator);
+                LOG.info("Migrated " + summary.files() + " mapping files of " + descriptor.getName() + ", "
+                        + summary.plannedAnnotations() + " annotations planned");
+
+                indicator.checkCanceled();
+                ApplicationManager.getApplication().invokeAndWait(
+                        () -> registerAnnotatedClasses(project, descriptor),
+                        ModalityState.defaultModalityState());
+            }
+        }.queue();
+    }
+
+    /**
+     * Finds every mapping file of the descriptor: {@code <mapping resource|file>} and
+     * {@code <mapping-file>} entries name them, {@code <mapping class>} and {@code <class>} entries
+     * are looked up in {@link XmlMappingIndex}. Must be called in a read action in smart mode.
+     */
+    private static List<MappingEntry> findMappingEntries(Project project, XmlFile descriptor) {
+        List<MappingEntry> entries = new ArrayList<>();
+        for (XmlTag tag : getMappingTags(descriptor)) {
+            String resource = getResource(tag);
+            if (resource != null) {
+                VirtualFile file = findResource(project, descriptor, resource);
+                if (file != null) {
+                    entries.add(new MappingEntry(tag, file));
+                } else {
+                    LOG.info("Mapping resource " + resource + " of " + descriptor.getName() + " not found");
+                }
+                continue;
+            }
+
+            String className = getClassName(tag);
+            if (className == null) continue;
+            for (XmlMappingIndex.MappingDeclaration declaration :
+                    XmlMappingIndex.findDeclarations(className, GlobalSearchScope.projectScope(project))) {
+                if (declaration.location().kind() == XmlMappingIndex.MappingKind.HIBERNATE_CLASS) {
+                    entries.add(new MappingEntry(tag, declaration.file()));
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Replaces the descriptor's mapping file entries by one class registration per class the
+     * mapping file declared, skipping classes that are registered already.
+     */
+    private static void registerAnnotatedClasses(Project project, XmlFile descriptor) {
+        if (!descriptor.isValid()) return;
+
+        Map<XmlTag, List<String>> replacements = new LinkedHashMap<>();
+        Set<String> registered = new LinkedHashSet<>();
+        for (XmlTag tag : getMappingTags(descriptor)) {
+            String className = getClassName(tag);
+            if (className != null) {
+                registered.add(className);
+                continue;
+            }
+
+            String resource = getResource(tag);
+            VirtualFile file = resource != null ? findResource(project, descriptor, resource) : null;
+            PsiFile psiFile = file != null ? PsiManager.getInstance(project).findFile(file) : null;
+            if (psiFile instanceof XmlFile mappingFile) {
+                List<String> classNames = getMappedClassNames(mappingFile);
+                // Keep the mapping file as long as one of its classes is not an entity yet
+                if (!classNames.isEmpty() && classNames.stream().allMatch(name -> isEntity(project, name))) {
+                    replacements.put(tag, classNames);
+                }
+            }
+        }
+        if (replacements.isEmpty()) return;
+
+        WriteCommandAction.writeCommandAction(project, descriptor)
+                .withName(HibernateXmlToAnnotationsAction.COMMAND_NAME)
+                .run(() -> {
+                    XmlElementFactory elementFactory = XmlElementFactory.getInstance(project);
+                    replacements.forEach((tag, classNames) -> {
+                        if (!tag.isValid()) return;
+                        XmlTag parent = tag.getParentTag();
+                        if (parent == null) return;
+
+                        for (String className : classNames) {
+                            if (!registered.add(className)) continue;
+
+                            XmlTag registration = createRegistration(elementFactory, tag, className);
+                            if (MAPPING_FILE_TAG.equals(tag.getName())) {
+                                // The schema orders a unit's entries mapping-file*, jar-file*, class*
+                                parent.addAfter(registration, getLastUnitEntry(parent));
+                            } else {
+                                parent.addBefore(registration, tag);
+                            }
+                        }
+                        tag.delete();
+                    });
+                });
+    }
+
+    private static boolean isEntity(Project project, String className) {
+        PsiClass psiClass = JavaPsiFacade.getInstance(project)
+                .findClass(className, GlobalSearchScope.projectScope(project));
+        PsiModifierList modifierList = psiClass != null ? psiClass.getModifierList() : null;
+        return modifierList != null && AnnotationPresence.of(modifierList).has("jakarta.persistence.Entity");
+    }
+
+    /**
+     * The last {@code <mapping-file>}, {@code <jar-file>} or {@code <class>} entry of a
+     * persistence unit, after which new class registrations go.
+     */
+    private static XmlTag getLastUnitEntry(XmlTag unit) {
+        XmlTag last = null;
+        for (XmlTag tag : unit.getSubTags()) {
+            String name = tag.getName();
+            if (MAPPING_FILE_TAG.equals(name) || JAR_FILE_TAG.equals(name) || CLASS_TAG.equals(name)) {
+                last = tag;
+            }
+        }
+        return last;
+    }
+
+    private static XmlTag createRegistration(XmlElementFactory elementFactory, XmlTag entry, String className) {
+        String text = MAPPING_TAG.equals(entry.getName())
+                ? "<" + MAPPING_TAG + " " + CLASS_TAG + "=\"" + className + "\"/>"
+                : "<" + CLASS_TAG + ">" + className + "</" + CLASS_TAG + ">";
+        return elementFactory.createTagFromText(text, entry.getLanguage());
+    }
+
+    /**
+     * The {@code <mapping>} tags of the session factory or the mapping entries of every
+     * persistence unit.
+     */
+    private static List<XmlTag> getMappingTags(XmlFile descriptor) {
+        XmlTag rootTag = descriptor.getRootTag();
+        if (rootTag == null) return List.of();
+
+        List<XmlTag> tags = new ArrayList<>();
+        if (HIBERNATE_CONFIGURATION_TAG.equals(rootTag.getName())) {
+            for (XmlTag sessionFactory : rootTag.findSubTags(SESSION_FACTORY_TAG)) {
+                tags.addAll(List.of(sessionFactory.findSubTags(MAPPING_TAG)));
+            }
+        } else if (PERSISTENCE_TAG.equals(rootTag.getName())) {
+            for (XmlTag unit : rootTag.findSubTags(PERSISTENCE_UNIT_TAG)) {
+                for (XmlTag tag : unit.getSubTags()) {
+                    if (MAPPING_FILE_TAG.equals(tag.getName()) || CLASS_TAG.equals(tag.getName())) {
+                        tags.add(tag);
+                    }
+                }
+            }
+        }
+        return tags;
+    }
+
+    @Nullable
+    private static String getResource(XmlTag tag) {
+        String resource = MAPPING_FILE_TAG.equals(tag.getName())
+                ? tag.getValue().getTrimmedText()
+                : StringUtil.notNullize(tag.getAttributeValue("resource"), StringUtil.notNullize(tag.getAttributeValue("file")));
+        return resource.isBlank() ? null : resource.trim();
+    }
+
+    @Nullable
+    private static String getClassName(XmlTag tag) {
+        String className = CLASS_TAG.equals(tag.getName())
+                ? tag.getValue().getTrimmedText()
+                : tag.getAttributeValue(CLASS_TAG);
+        return className == null || className.isBlank() ? null : className.trim();
+    }
+
+    /**
+     * Resolves a mapping resource against the source and resource roots, as Hibernate loads it
+     * from the classpath, falling back to the descriptor's directory.
+     */
+    @Nullable
+    private static VirtualFile findResource(Project project, XmlFile descriptor, String resource) {
+        String path = StringUtil.trimStart(resource, "/");
+        for (VirtualFile root : ProjectRootManager.getInstance(project).getContentSourceRoots()) {
+            VirtualFile file = root.findFileByRelativePath(path);
+            if (file != null) return file;
+        }
+
+        VirtualFile descriptorFile = descriptor.getOriginalFile().getVirtualFile();
+        VirtualFile directory = descriptorFile != null ? descriptorFile.getParent() : null;
+        return directory != null ? directory.findFileByRelativePath(path) : null;
+    }
+
+    /**
+     * Qualified names of the classes a {@code <hibernate-mapping>} file maps, honoring its
+     * {@code package} attribute.
+     */
+    private static List<String> getMappedClassNames(XmlFile mappingFile) {
+        XmlTag rootTag = mappingFile.getRootTag();
+        if (rootTag == null || !HibernateXmlToAnnotationsAction.HIBERNATE_MAPPING_TAG.equals(rootTag.getName())) {
+            return List.of();
+        }
+
+        String packageName = rootTag.getAttributeValue("package");
+        List<String> classNames = new ArrayList<>();
+        for (XmlTag classTag : rootTag.findSubTags(CLASS_TAG)) {
+            String className = HibernateMappingReader.qualify(classTag.getAttributeValue("name"), packageName);
+            if (className != null) {
+                classNames.add(className);
+            }
+        }
+        return classNames;
+    }
+}
@@ -3,40 +3,40 @@ package org.Roshan;
 import com.intellij.openapi.actionSystem.AnAction;
 import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.actionSystem.CommonDataKeys;
-import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.editor.Editor;
-import com.intellij.openapi.editor.SelectionModel;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.TextRange;
 import com.intellij.psi.*;
 import com.intellij.psi.search.GlobalSearchScope;
-import com.intellij.psi.xml.*;
 import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.psi.xml.*;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import org.Roshan.core.AnnotationTarget;
+import org.Roshan.core.HibernateAnnotationRules;
+import org.Roshan.core.HibernateMappingReader;
+import org.Roshan.core.HibernateModel;
+import org.Roshan.core.PlannedAnnotation;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
 import java.util.stream.Collectors;
 
+/**
+ * Converts a Hibernate mapping file to JPA annotations. The mapping is read and the annotations
+ * are computed by the conversion core; this action finds the tags, resolves the classes and
+ * fields the annotations go on and applies the plan.
+ */
 public class HibernateXmlToAnnotationsAction  extends AnAction {
-    private static final String HIBERNATE_MAPPING_TAG = "hibernate-mapping";
-    private static final String CLASS_TAG = "class";
-    private static final String TABLE_TAG = "table";
+    private static final Logger LOG = Logger.getInstance(HibernateXmlToAnnotationsAction.class);
+    static final String COMMAND_NAME = "Hibernate XML to Annotations";
+    static final String HIBERNATE_MAPPING_TAG = HibernateMappingReader.HIBERNATE_MAPPING_TAG;
+    private static final String CLASS_TAG = HibernateMappingReader.CLASS_TAG;
     private static final String NAME_TAG = "name";
-    private static final String COLUMN_TAG = "column";
-    private static final String ID_TAG = "id";
-    private static final String PROPERTY_TAG = "property";
-    private static final String MANY_TO_ONE_TAG = "many-to-one";
-    private static final String ONE_TO_MANY_TAG = "one-to-many";
-    private static final String MANY_TO_MANY_TAG = "many-to-many";
-    private static final String JOIN_COLUMN_TAG = "join-column";
-    private static final String JOIN_TABLE_TAG = "join-table";
-    private static final String KEY_COLUMN_TAG = "key-column";
-    private static final String KEY_MANY_TO_MANY_TAG = "key-many-to-one";
-    private static final String KEY_PROPERTY_REF_TAG = "key-property-ref";
-    private static final String COLLECTION_ID_TAG = "collection-id";
-    private static final String KEY_TAG = "key";
-    private static final String VALUE_TAG = "value";
-    private static final String COMPOSITE_ID_TAG = "composite-id";
 
     @Override
     public void actionPerformed(@NotNull AnActionEvent e) {
@@ -47,12 +47,16 @@ public class HibernateXmlToAnnotationsAction  extends AnAction {
         if (!(psiFile instanceof XmlFile xmlFile)) {
             return;
         }
-        System.out.println(" Main root tag is : ");
         XmlTag rootTag = xmlFile.getRootTag();
+        if (HibernateConfigurationMigration.isConfiguration(rootTag)) {
+            // A session factory or persistence unit, migrate all of its mapping files together
+            HibernateConfigurationMigration.migrate(project, xmlFile);
+            return;
+        }
         if (rootTag == null || !HIBERNATE_MAPPING_TAG.equals(rootTag.getName())) {
+            LOG.debug("Not a Hibernate mapping file: " + xmlFile.getName());
             return;
         }
-        System.out.println(" root tag is : " + rootTag.getName());
 
         convertHibernateXmlToAnnotations(project, xmlFile, editor);
 
@@ -66,647 +70,200 @@ public class HibernateXmlToAnnotationsAction  extends AnAction {
                 project != null && psiFile instanceof XmlFile
         );
     }
-    protected void convertHibernateXmlToAnnotations(Project project, XmlFile xmlFile, Editor editor) {
-        XmlTag rootTag = xmlFile.getRootTag();
-
-        JavaPsiFacade psiFacade = JavaPsiFacade.getInstance(project);
-        PsiElementFactory elementFactory = PsiElementFactory.getInstance(project);
-
-        WriteCommandAction.runWriteCommandAction(project, () -> {
-            List<XmlTag> classesToProcess = getClassTagsToProcess(rootTag, editor);
-            processHibernateClasses(classesToProcess, psiFacade, elementFactory);
-        });
-    }
-
-    private List<XmlTag> getClassTagsToProcess(XmlTag rootTag, Editor editor) {
-        SelectionModel selectionModel = editor.getSelectionModel();
-
-        if (!selectionModel.hasSelection()) {
-            return Arrays.stream(rootTag.getSubTags())
-                    .filter(tag -> CLASS_TAG.equals(tag.getName()))
-                    .collect(Collectors.toList());
-        }
-
-        int start = selectionModel.getSelectionStart();
-        int end = selectionModel.getSelectionEnd();
-
-        return PsiTreeUtil.findChildrenOfType(rootTag, XmlTag.class).stream()
-                .filter(tag -> {
-                    TextRange tagRange = tag.getTextRange();
-                    return tagRange.getStartOffset() >= start &&
-                            tagRange.getEndOffset() <= end &&
-                            CLASS_TAG.equals(tag.getName());
-                })
-                .collect(Collectors.toList());
-    }
-
-    private void processHibernateClasses(List<XmlTag> classTags,
-                                         JavaPsiFacade psiFacade,
-                                         PsiElementFactory elementFactory) {
-        classTags.forEach(classTag -> processHibernateClass(classTag, psiFacade, elementFactory));
-    }
-
-    private void processHibernateClass(XmlTag classTag,
-                                       JavaPsiFacade psiFacade,
-                                       PsiElementFactory elementFactory) {
-        String className = classTag.getAttributeValue(NAME_TAG);
-        if (className == null) return;
-
-        PsiClass psiClass = psiFacade.findClass(className,
-                GlobalSearchScope.projectScope(psiFacade.getProject()));
-        if (psiClass == null) return;
-
-        addEntityAnnotations(psiClass, classTag, elementFactory);
-        processClassElements(psiClass, classTag, elementFactory);
-    }
-
-    private void addEntityAnnotations(PsiClass psiClass, XmlTag classTag, PsiElementFactory elementFactory) {
-        // Add @Entity
-        addAnnotationIfNotPresent(psiClass, "@Entity", elementFactory);
-
-        // Add @Table with name and schema if specified
-        String tableName = classTag.getAttributeValue(TABLE_TAG);
-        String schema = classTag.getAttributeValue("schema");
-        if (tableName != null) {
-            StringBuilder tableAnnotation = new StringBuilder("@Table(");
-            tableAnnotation.append(String.format("name = \"%s\"", tableName));
-            if (schema != null) {
-                tableAnnotation.append(String.format(", schema = \"%s\"", schema));
-            }
-            String catalog = classTag.getAttributeValue("catalog");
-            if (catalog != null) {
-                tableAnnotation.append(String.format(", catalog = \"%s\"", catalog));
-            }
-            tableAnnotation.append(")");
-            addAnnotationIfNotPresent(psiClass, tableAnnotation.toString(), elementFactory);
-        }
-    }
+    protected void convertHibernateXmlToAnnotations(Project project, XmlFile xmlFile, @Nullable Editor editor) {
+        TextRange selection = XmlTagSelection.getSelectionRange(editor);
+        MigrationMetrics metrics = MigrationMetrics.getInstance(project);
+        metrics.startRun();
 
-
-    private void processClassElements(PsiClass psiClass, XmlTag classTag, PsiElementFactory elementFactory) {
-        Arrays.stream(classTag.getSubTags()).forEach(tag -> {
-            switch (tag.getName()) {
-                case ID_TAG -> processId(psiClass, tag, elementFactory);
-                case PROPERTY_TAG -> processProperty(psiClass, tag, elementFactory);
-                case MANY_TO_ONE_TAG -> processManyToOne(psiClass, tag, elementFactory);
-                case ONE_TO_MANY_TAG -> processOneToMany(psiClass, tag, elementFactory);
-                case MANY_TO_MANY_TAG -> processManyToMany(psiClass, tag, elementFactory);
-                case COMPOSITE_ID_TAG -> processCompositeId(psiClass, tag, elementFactory);
-            }
-        });
+        ReadAction.nonBlocking(() -> buildMigrationPlan(new ClassResolutionCache(project), xmlFile, selection))
+                .inSmartMode(project)
+                .expireWith(project)
+                .finishOnUiThread(ModalityState.defaultModalityState(),
+                        plan -> {
+                            metrics.filePlanned(plan);
+                            MigrationPlanApplier.applyAsync(project, plan, COMMAND_NAME, metrics::finishRun);
+                        })
+                .submit(AppExecutorUtil.getAppExecutorService())
+                .onError(error -> metrics.finishRun());
     }
 
-    private void processId(PsiClass psiClass, XmlTag idTag, PsiElementFactory elementFactory) {
-        String fieldName = idTag.getAttributeValue(NAME_TAG);
-        if (fieldName == null) return;
-
-        PsiField field = psiClass.findFieldByName(fieldName, false);
-        if (field == null) return;
-
-        // Add @Id
-        addAnnotationIfNotPresent(field, "@Id", elementFactory);
-
-        // Process generator strategy
-        String generator = idTag.getAttributeValue("generator-class");
-        if (generator != null) {
-            String strategy = getGeneratorStrategy(generator);
-            String generatorAnnotation = String.format(
-                    "@GeneratedValue(strategy = GenerationType.%s)",
-                    strategy
-            );
-            addAnnotationIfNotPresent(field, generatorAnnotation, elementFactory);
-        }
-        // Process column details
-        processColumnDetails(field, idTag, elementFactory);
-    }
-
-    private void processProperty(PsiClass psiClass, @NotNull XmlTag propertyTag, PsiElementFactory elementFactory) {
-        String fieldName = propertyTag.getAttributeValue(NAME_TAG);
-        if (fieldName == null) return;
-
-        PsiField field = psiClass.findFieldByName(fieldName, false);
-        if (field == null) return;
-
-        processColumnDetails(field, propertyTag, elementFactory);
-        // Handle temporal types for Date fields
-        String type = propertyTag.getAttributeValue("type");
-        if (type != null && type.contains("timestamp")) {
-            addAnnotationIfNotPresent(field,
-                    "@Temporal(TemporalType.TIMESTAMP)",
-                    elementFactory);
-        }
-    }
-
-    private void processManyToOne(PsiClass psiClass, XmlTag relationTag, PsiElementFactory elementFactory) {
-        String fieldName = relationTag.getAttributeValue(NAME_TAG);
-        if (fieldName == null) return;
-
-        PsiField field = psiClass.findFieldByName(fieldName, false);
-        if (field == null) return;
-
-        // Add @ManyToOne
-        StringBuilder annotation = new StringBuilder("@ManyToOne(");
-        String fetch = relationTag.getAttributeValue("fetch");
-        if (fetch != null) {
-            annotation.append(String.format("fetch = FetchType.%s", fetch.toUpperCase()));
-        }
-        annotation.append(")");
-        addAnnotationIfNotPresent(field, annotation.toString(), elementFactory);
-
-        // Process JoinColumn
-        String column = relationTag.getAttributeValue(COLUMN_TAG);
-        if (column != null) {
-            String joinColumnAnnotation = String.format(
-                    "@JoinColumn(name = \"%s\")",
-                    column
-            );
-            addAnnotationIfNotPresent(field, joinColumnAnnotation, elementFactory);
-        }
-    }
-
-    private void processOneToMany(PsiClass psiClass, XmlTag relationTag, PsiElementFactory elementFactory) {
-        String fieldName = relationTag.getAttributeValue(NAME_TAG);
-        if (fieldName == null) return;
-
-        PsiField field = psiClass.findFieldByName(fieldName, false);
-        if (field == null) return;
-
-        StringBuilder annotation = new StringBuilder("@OneToMany(");
-        List<String> attributes = new ArrayList<>();
-
-        String mappedBy = relationTag.getAttributeValue("mapped-by");
-        if (mappedBy != null) {
-            attributes.add(String.format("mappedBy = \"%s\"", mappedBy));
-        }
-
-        String fetch = relationTag.getAttributeValue("fetch");
-        if (fetch != null) {
-            attributes.add(String.format("fetch = FetchType.%s", fetch.toUpperCase()));
-        }
-
-        annotation.append(String.join(", ", attributes)).append(")");
-        addAnnotationIfNotPresent(field, annotation.toString(), elementFactory);
-    }
-
-    private void processManyToMany(PsiClass psiClass, XmlTag relationTag, PsiElementFactory elementFactory) {
-        String fieldName = relationTag.getAttributeValue(NAME_TAG);
-        if (fieldName == null) return;
-
-        PsiField field = psiClass.findFieldByName(fieldName, false);
-        if (field == null) return;
-
-        StringBuilder annotation = new StringBuilder("@ManyToMany(");
-        List<String> attributes = new ArrayList<>();
-
-        String mappedBy = relationTag.getAttributeValue("mapped-by");
-        if (mappedBy != null) {
-            attributes.add(String.format("mappedBy = \"%s\"", mappedBy));
-        }
-
-        String fetch = relationTag.getAttributeValue("fetch");
-        if (fetch != null) {
-            attributes.add(String.format("fetch = FetchType.%s", fetch.toUpperCase()));
-        }
-
-        annotation.append(String.join(", ", attributes)).append(")");
-        addAnnotationIfNotPresent(field, annotation.toString(), elementFactory);
-
-        // Process JoinTable if present
-        XmlTag joinTable = relationTag.findFirstSubTag("join-table");
-        if (joinTable != null) {
-            processJoinTable(field, joinTable, elementFactory);
-        }
-    }
-
-    private void processColumnDetails(PsiField field, XmlTag tag, PsiElementFactory elementFactory) {
-        String column = tag.getAttributeValue("column");
-        if (column == null) return;
-
-        List<String> columnAttributes = new ArrayList<>();
-        columnAttributes.add(String.format("name = \"%s\"", column));
+    /**
+     * Builds the migration plan for the class tags of the file, or of the selection if one is given.
+     * Only reads PSI, so it must run inside a read action and may run off the EDT.
+     * Class lookups go through the given run-scoped cache.
+     */
+    MigrationPlan buildMigrationPlan(ClassResolutionCache classes, XmlFile xmlFile, @Nullable TextRange selection) {
+        if (!xmlFile.isValid()) return MigrationPlan.empty();
 
-        String length = tag.getAttributeValue("length");
-        if (length != null) {
-            columnAttributes.add(String.format("length = %s", length));
+        XmlTag rootTag = xmlFile.getRootTag();
+        if (rootTag == null || !HIBERNATE_MAPPING_TAG.equals(rootTag.getName())) {
+            return MigrationPlan.empty();
         }
 
-        String nullable = tag.getAttributeValue("not-null");
-        if (nullable != null) {
-            columnAttributes.add(String.format("nullable = %s", !Boolean.parseBoolean(nullable)));
-        }
+        MigrationPlan.Builder plan = MigrationPlan.builder(xmlFile);
 
-        String unique = tag.getAttributeValue("unique");
-        if (unique != null) {
-            columnAttributes.add(String.format("unique = %s", unique));
+        MigrationEvents.TagDiscovery discovery = new MigrationEvents.TagDiscovery();
+        discovery.begin();
+        List<XmlTag> classesToProcess = getClassTagsToProcess(rootTag, selection);
+        discovery.end();
+        if (discovery.shouldCommit()) {
+            discovery.fileName = xmlFile.getName();
+            discovery.tagCount = classesToProcess.size();
+            discovery.commit();
         }
+        plan.addTagCount(classesToProcess.size());
+        processHibernateClasses(classesToProcess, rootTag.getAttributeValue("package"), classes,
+                new EntityLookup(xmlFile), plan);
 
-        String columnAnnotation = "@Column(" +
-                String.join(", ", columnAttributes) +
-                ")";
-        addAnnotationIfNotPresent(field, columnAnnotation, elementFactory);
+        return plan.build();
     }
 
-    private void processJoinTable(PsiField field, XmlTag joinTableTag, PsiElementFactory elementFactory) {
-        StringBuilder annotation = new StringBuilder("@JoinTable(");
-        List<String> attributes = new ArrayList<>();
-
-        String tableName = joinTableTag.getAttributeValue(NAME_TAG);
-        if (tableName != null) {
-            attributes.add(String.format("name = \"%s\"", tableName));
+    List<XmlTag> getClassTagsToProcess(XmlTag rootTag, @Nullable TextRange selection) {
+        if (selection == null) {
+            return Arrays.stream(rootTag.getSubTags())
+                    .filter(tag -> CLASS_TAG.equals(tag.getName()))
+                    .collect(Collectors.toList());
         }
 
-        // Process join columns
-        processJoinColumns(joinTableTag, attributes);
-
-        annotation.append(String.join(", ", attributes)).append(")");
-        addAnnotationIfNotPresent(field, annotation.toString(), elementFactory);
-    }
-
-    private void processJoinColumns(XmlTag joinTableTag, List<String> attributes) {
-        XmlTag[] joinColumns = joinTableTag.findSubTags("join-column");
-        if (joinColumns.length > 0) {
-            StringBuilder joinColumnsStr = new StringBuilder("joinColumns = {");
-            String columns = Arrays.stream(joinColumns)
-                    .map(this::createJoinColumnString)
-                    .collect(Collectors.joining(", "));
-            joinColumnsStr.append(columns).append("}");
-            attributes.add(joinColumnsStr.toString());
-        }
+        return XmlTagSelection.findTagsInRange(rootTag, selection, CLASS_TAG);
     }
 
-    private String createJoinColumnString(XmlTag joinColumnTag) {
-        List<String> attributes = new ArrayList<>();
-
-        String name = joinColumnTag.getAttributeValue(NAME_TAG);
-        if (name != null) {
-            attributes.add(String.format("name = \"%s\"", name));
-        }
-
-        String referencedColumnName = joinColumnTag.getAttributeValue("referenced-column-name");
-        if (referencedColumnName != null) {
-            attributes.add(String.format("referencedColumnName = \"%s\"", referencedColumnName));
+    private void processHibernateClasses(List<XmlTag> classTags,
+                                         @Nullable String packageName,
+                                         ClassResolutionCache classes,
+                                         EntityLookup entities,
+                                         MigrationPlan.Builder plan) {
+        for (XmlTag classTag : classTags) {
+            ProgressManager.checkCanceled();
+            processHibernateClass(classTag, packageName, classes, entities, plan);
         }
-
-        return "@JoinColumn(" +
-                String.join(", ", attributes) +
-                ")";
     }
 
-    private void addColumnAnnotation(PsiField field,
-                                     XmlTag tag,
-                                     PsiElementFactory elementFactory) {
-        List<String> attributes = new ArrayList<>();
-
-        String column = tag.getAttributeValue("column");
-        if (column != null) {
-            attributes.add(String.format("name = \"%s\"", column));
-        }
-
-        String length = tag.getAttributeValue("length");
-        if (length != null) {
-            attributes.add(String.format("length = %s", length));
-        }
-
-        String nullable = tag.getAttributeValue("not-null");
-        if (nullable != null) {
-            attributes.add(String.format("nullable = %s", !Boolean.parseBoolean(nullable)));
-        }
+    private void processHibernateClass(XmlTag classTag,
+                                       @Nullable String packageName,
+                                       ClassResolutionCache classes,
+                                       EntityLookup entities,
+                                       MigrationPlan.Builder plan) {
+        String className = HibernateMappingReader.qualify(classTag.getAttributeValue(NAME_TAG), packageName);
+        if (className == null) return;
 
-        String unique = tag.getAttributeValue("unique");
-        if (unique != null) {
-            attributes.add(String.format("unique = %s", unique));
+        PsiClass psiClass = classes.findProjectClass(className);
+        if (psiClass == null) {
+            plan.classNotFound();
+            return;
         }
 
-        if (!attributes.isEmpty()) {
-            String annotation = "@Column(" +
-                    String.join(", ", attributes) +
-                    ")";
-            addAnnotationIfNotPresent(field, annotation, elementFactory);
-        }
-    }
+        HibernateModel.Entity entity = HibernateMappingReader.readEntity(PsiXmlElements.toElement(classTag), packageName);
+        // The annotations of inverse collections depend on the owning side's mapping
+        long[] contextHash = {0};
+        List<PlannedAnnotation> annotations = entity != null
+                ? HibernateAnnotationRules.plan(entity, name -> {
+                    EntityLookup.Mapping mapping = entities.find(name);
+                    contextHash[0] = (contextHash[0] * 31 + mapping.hash()) | 1;
+                    return mapping.entity();
+                })
+                : List.of();
 
-    private String getGeneratorStrategy(String generator) {
-        return switch (generator.toLowerCase()) {
-            case "identity" -> "IDENTITY";
-            case "sequence" -> "SEQUENCE";
-            case "table" -> "TABLE";
-            default -> "AUTO";
-        };
-    }
-    /**
-     * Adds an annotation to a PsiModifierListOwner (class, field, or method) if it's not already present.
-     * Handles both simple and complex annotations with attributes.
-     *
-     * @param element        The element to add the annotation to
-     * @param annotationText The full annotation text
-     * @param elementFactory The PsiElementFactory instance
-     */
-    private void addAnnotationIfNotPresent(PsiModifierListOwner element,
-                                           String annotationText,
-                                           PsiElementFactory elementFactory) {
-        PsiModifierList modifierList = element.getModifierList();
-        if (modifierList == null) return;
-
-        // Extract the full qualified name of the annotation
-        String qualifiedName = extractQualifiedName(annotationText);
-        if (qualifiedName == null) return;
-
-        // Check if annotation already exists
-        if (hasAnnotation(modifierList, qualifiedName)) {
+        // Unchanged since the last run on both sides, nothing new to add
+        if (plan.isUnchanged(classTag, contextHash[0], psiClass)) {
             return;
         }
-
-        try {
-            // Create and add the annotation
-            PsiAnnotation annotation = elementFactory.createAnnotationFromText(
-                    annotationText,
-                    element
-            );
-            modifierList.addAfter(annotation, null);
-        } catch (Exception e) {
-            // Log error or handle exception
-            System.out.println(
-                    "Failed to add annotation: " + annotationText);
-        }
+        plan.addFingerprint(classTag, contextHash[0], psiClass);
+        addPlannedAnnotations(annotations, className, psiClass, classes, plan);
     }
 
     /**
-     * Extracts the fully qualified name from an annotation text.
-     *
-     * @param annotationText The full annotation text
-     * @return The qualified name of the annotation
+     * Reads the mappings of other entities, which the core needs to find the owning side of an
+     * inverse collection. Classes of the file being converted are read from it, others are found
+     * through {@link XmlMappingIndex}. Each class is read at most once per plan. Must be used in
+     * a read action in smart mode.
      */
-    private String extractQualifiedName(String annotationText) {
-        if (annotationText == null || annotationText.isEmpty()) {
-            return null;
+    private static final class EntityLookup {
+        /**
+         * @param entity The mapped entity, or {@code null} if the class has no mapping
+         * @param hash   Hash of the class tag's text and package, or of the class name if there
+         *               is none, so that adding, editing or removing the mapping changes it
+         */
+        record Mapping(@Nullable HibernateModel.Entity entity, long hash) {
         }
 
-        // Remove the @ symbol if present
-        String text = annotationText.startsWith("@") ?
-                annotationText.substring(1) : annotationText;
-
-        // Extract the name part before any parentheses
-        int parenthesesIndex = text.indexOf('(');
-        return parenthesesIndex > 0 ?
-                text.substring(0, parenthesesIndex).trim() :
-                text.trim();
-    }
+        private final XmlFile xmlFile;
+        private final Map<String, Mapping> entities = new HashMap<>();
 
-    /**
-     * Checks if the modifier list already contains an annotation with the given qualified name.
-     *
-     * @param modifierList  The modifier list to check
-     * @param qualifiedName The qualified name of the annotation
-     * @return true if the annotation exists, false otherwise
-     */
-    private boolean hasAnnotation(PsiModifierList modifierList, String qualifiedName) {
-        // Check for existing annotation using both qualified and simple names
-        String simpleName = getSimpleName(qualifiedName);
-
-        return Arrays.stream(modifierList.getAnnotations())
-                .anyMatch(existing -> {
-                    String existingQualifiedName = existing.getQualifiedName();
-                    if (existingQualifiedName == null) return false;
-
-                    return existingQualifiedName.equals(qualifiedName) ||
-                            existingQualifiedName.equals(simpleName);
-                });
-    }
-
-    /**
-     * Gets the simple name of an annotation from its qualified name.
-     *
-     * @param qualifiedName The qualified name of the annotation
-     * @return The simple name
-     */
-    private String getSimpleName(String qualifiedName) {
-        int lastDot = qualifiedName.lastIndexOf('.');
-        return lastDot > 0 ? qualifiedName.substring(lastDot + 1) : qualifiedName;
-    }
-
-    /**
-     * Utility method to create a complex annotation with multiple attributes.
-     *
-     * @param annotationName The name of the annotation
-     * @param attributes     Map of attribute names and values
-     * @return The complete annotation text
-     */
-    private String buildAnnotationText(String annotationName,
-                                       Map<String, String> attributes) {
-        if (attributes.isEmpty()) {
-            return "@" + annotationName;
+        private EntityLookup(XmlFile xmlFile) {
+            this.xmlFile = xmlFile;
         }
 
-        StringBuilder builder = new StringBuilder("@").append(annotationName).append("(");
-
-        String attributesStr = attributes.entrySet().stream()
-                .map(entry -> entry.getKey() + " = " + entry.getValue())
-                .collect(Collectors.joining(", "));
-
-        return builder.append(attributesStr).append(")").toString();
-    }
-
-
-    /**
-     * Adds multiple annotations at once
-     *
-     * @param element        The element to add annotations to
-     * @param annotations    List of annotation texts
-     * @param elementFactory The PsiElementFactory instance
-     */
-    private void addMultipleAnnotations(PsiModifierListOwner element,
-                                        List<String> annotations,
-                                        PsiElementFactory elementFactory) {
-        annotations.forEach(annotation ->
-                addAnnotationIfNotPresent(element, annotation, elementFactory));
-    }
-    /**
-     * Processes composite-id elements and converts them to appropriate JPA annotations
-     */
-    private void processCompositeId(PsiClass psiClass, XmlTag compositeIdTag, PsiElementFactory elementFactory) {
-        // Add @IdClass or @EmbeddedId annotation based on the mapping strategy
-        if (isEmbeddableStrategy(compositeIdTag)) {
-            processEmbeddedIdStrategy(psiClass, compositeIdTag, elementFactory);
-        } else {
-            processIdClassStrategy(psiClass, compositeIdTag, elementFactory);
+        Mapping find(String className) {
+            return entities.computeIfAbsent(className, this::read);
         }
-    }
 
-    /**
-     * Determines if the composite-id should use @EmbeddedId strategy
-     */
-    private boolean isEmbeddableStrategy(XmlTag compositeIdTag) {
-        XmlTag classTag = compositeIdTag.findFirstSubTag("class");
-        return classTag != null;
-    }
+        private Mapping read(String className) {
+            XmlTag classTag = findInFile(xmlFile, className);
+            if (classTag == null) {
+                Project project = xmlFile.getProject();
+                PsiManager psiManager = PsiManager.getInstance(project);
+                for (XmlMappingIndex.MappingDeclaration declaration :
+                        XmlMappingIndex.findDeclarations(className, GlobalSearchScope.projectScope(project))) {
+                    if (declaration.location().kind() != XmlMappingIndex.MappingKind.HIBERNATE_CLASS) continue;
 
-    /**
-     * Processes composite-id using @EmbeddedId strategy
-     */
-    private void processEmbeddedIdStrategy(PsiClass psiClass, XmlTag compositeIdTag, PsiElementFactory elementFactory) {
-        // Find the id field
-        String idFieldName = compositeIdTag.getAttributeValue(NAME_TAG);
-        if (idFieldName == null) return;
-
-        PsiField idField = psiClass.findFieldByName(idFieldName, false);
-        if (idField == null) return;
-
-        // Add @EmbeddedId annotation to the field
-        addAnnotationIfNotPresent(idField, "@EmbeddedId", elementFactory);
-
-        // Process the embedded class
-        XmlTag classTag = compositeIdTag.findFirstSubTag("class");
-        if (classTag != null) {
-            String embeddedClassName = classTag.getAttributeValue(NAME_TAG);
-            PsiClass embeddedClass = JavaPsiFacade.getInstance(psiClass.getProject())
-                    .findClass(embeddedClassName, GlobalSearchScope.allScope(psiClass.getProject()));
-            if (embeddedClass != null) {
-                processEmbeddableClass(embeddedClass, classTag, elementFactory);
+                    PsiFile file = psiManager.findFile(declaration.file());
+                    PsiElement element = file != null ? file.findElementAt(declaration.location().offset()) : null;
+                    classTag = PsiTreeUtil.getParentOfType(element, XmlTag.class, false);
+                    if (classTag != null && CLASS_TAG.equals(classTag.getName())) break;
+                    classTag = null;
+                }
             }
-        }
-    }
-
+            if (classTag == null) return new Mapping(null, MigrationFingerprints.hash(className));
 
-    /**
-     * Processes the embeddable class for composite id
-     */
-    private void processEmbeddableClass(PsiClass embeddedClass, XmlTag classTag, PsiElementFactory elementFactory) {
-        // Add @Embeddable annotation
-        addAnnotationIfNotPresent(embeddedClass, "@Embeddable", elementFactory);
-
-        // Process key properties
-        Arrays.stream(classTag.findSubTags("key-property"))
-                .forEach(keyPropertyTag -> processKeyProperty(embeddedClass, keyPropertyTag, elementFactory));
-
-        // Process many-to-one references in composite key
-        Arrays.stream(classTag.findSubTags("key-many-to-one"))
-                .forEach(keyManyToOneTag -> processKeyManyToOne(embeddedClass, keyManyToOneTag, elementFactory));
-    }
-
-    /**
-     * Processes key-property elements within composite-id
-     */
-    private void processKeyProperty(PsiClass embeddedClass, XmlTag keyPropertyTag, PsiElementFactory elementFactory) {
-        String propertyName = keyPropertyTag.getAttributeValue(NAME_TAG);
-        if (propertyName == null) return;
-
-        PsiField field = embeddedClass.findFieldByName(propertyName, false);
-        if (field == null) return;
-
-        // Add @Column annotation with appropriate attributes
-        Map<String, String> columnAttributes = new HashMap<>();
-
-        String column = keyPropertyTag.getAttributeValue("column");
-        if (column != null) {
-            columnAttributes.put("name", "\"" + column + "\"");
+            XmlTag rootTag = classTag.getParentTag();
+            String packageName = rootTag != null ? rootTag.getAttributeValue("package") : null;
+            return new Mapping(HibernateMappingReader.readEntity(PsiXmlElements.toElement(classTag), packageName),
+                    MigrationFingerprints.hash(packageName + ":" + classTag.getText()));
         }
 
-        String length = keyPropertyTag.getAttributeValue("length");
-        if (length != null) {
-            columnAttributes.put("length", length);
-        }
-
-        addAnnotationIfNotPresent(field,
-                buildAnnotationText("Column", columnAttributes),
-                elementFactory);
-    }
-
-    /**
-     * Processes key-many-to-one elements within composite-id
-     */
-    private void processKeyManyToOne(PsiClass embeddedClass, XmlTag keyManyToOneTag, PsiElementFactory elementFactory) {
-        String propertyName = keyManyToOneTag.getAttributeValue(NAME_TAG);
-        if (propertyName == null) return;
-
-        PsiField field = embeddedClass.findFieldByName(propertyName, false);
-        if (field == null) return;
-
-        // Add @ManyToOne annotation
-        addAnnotationIfNotPresent(field, "@ManyToOne", elementFactory);
-
-        // Add @JoinColumn annotation
-        String column = keyManyToOneTag.getAttributeValue("column");
-        if (column != null) {
-            Map<String, String> joinColumnAttributes = new HashMap<>();
-            joinColumnAttributes.put("name", "\"" + column + "\"");
-
-            addAnnotationIfNotPresent(field,
-                    buildAnnotationText("JoinColumn", joinColumnAttributes),
-                    elementFactory);
-        }
-    }
+        @Nullable
+        private static XmlTag findInFile(XmlFile xmlFile, String className) {
+            XmlTag rootTag = xmlFile.getRootTag();
+            if (rootTag == null) return null;
 
-    /**
-     * Processes composite-id using @IdClass strategy
-     */
-    private void processIdClassStrategy(PsiClass psiClass, XmlTag compositeIdTag, PsiElementFactory elementFactory) {
-        // Add @IdClass annotation to the entity class
-        String idClassName = compositeIdTag.getAttributeValue("class");
-        if (idClassName != null) {
-            String idClassAnnotation = String.format("@IdClass(%s.class)", idClassName);
-            addAnnotationIfNotPresent(psiClass, idClassAnnotation, elementFactory);
-        }
-
-        // Process key properties
-        Arrays.stream(compositeIdTag.findSubTags("key-property"))
-                .forEach(keyPropertyTag -> processIdClassProperty(psiClass, keyPropertyTag, elementFactory));
-
-        // Process many-to-one references
-        Arrays.stream(compositeIdTag.findSubTags("key-many-to-one"))
-                .forEach(keyManyToOneTag -> processIdClassManyToOne(psiClass, keyManyToOneTag, elementFactory));
-    }
-
-    /**
-     * Processes properties for @IdClass strategy
-     */
-    private void processIdClassProperty(PsiClass psiClass, XmlTag keyPropertyTag, PsiElementFactory elementFactory) {
-        String propertyName = keyPropertyTag.getAttributeValue(NAME_TAG);
-        if (propertyName == null) return;
-
-        PsiField field = psiClass.findFieldByName(propertyName, false);
-        if (field == null) return;
-
-        // Add @Id annotation
-        addAnnotationIfNotPresent(field, "@Id", elementFactory);
-
-        // Add @Column annotation
-        Map<String, String> columnAttributes = new HashMap<>();
-
-        String column = keyPropertyTag.getAttributeValue("column");
-        if (column != null) {
-            columnAttributes.put("name", "\"" + column + "\"");
+            String packageName = rootTag.getAttributeValue("package");
+            for (XmlTag classTag : rootTag.findSubTags(CLASS_TAG)) {
+                if (className.equals(HibernateMappingReader.qualify(classTag.getAttributeValue(NAME_TAG), packageName))) {
+                    return classTag;
+                }
+            }
+            return null;
         }
-
-        addAnnotationIfNotPresent(field,
-                buildAnnotationText("Column", columnAttributes),
-                elementFactory);
     }
 
     /**
-     * Processes many-to-one references for @IdClass strategy
+     * Resolves the targets of the core's planned annotations and adds them to the plan. Targets
+     * whose class or field is missing are skipped.
      */
-    private void processIdClassManyToOne(PsiClass psiClass, XmlTag keyManyToOneTag, PsiElementFactory elementFactory) {
-        String propertyName = keyManyToOneTag.getAttributeValue(NAME_TAG);
-        if (propertyName == null) return;
-
-        PsiField field = psiClass.findFieldByName(propertyName, false);
-        if (field == null) return;
-
-        // Add @Id annotation
-        addAnnotationIfNotPresent(field, "@Id", elementFactory);
-
-        // Add @ManyToOne annotation
-        addAnnotationIfNotPresent(field, "@ManyToOne", elementFactory);
-
-        // Add @JoinColumn annotation
-        String column = keyManyToOneTag.getAttributeValue("column");
-        if (column != null) {
-            Map<String, String> joinColumnAttributes = new HashMap<>();
-            joinColumnAttributes.put("name", "\"" + column + "\"");
-
-            addAnnotationIfNotPresent(field,
-                    buildAnnotationText("JoinColumn", joinColumnAttributes),
-                    elementFactory);
+    private void addPlannedAnnotations(List<PlannedAnnotation> annotations, String entityClassName, PsiClass psiClass,
+                                       ClassResolutionCache classes, MigrationPlan.Builder plan) {
+        // Besides the entity only an embedded key class is targeted, resolve each class once
+        Map<String, Optional<PsiClass>> targetClasses = new HashMap<>();
+        targetClasses.put(entityClassName, Optional.of(psiClass));
+
+        for (PlannedAnnotation annotation : annotations) {
+            AnnotationTarget target = annotation.target();
+            PsiClass targetClass = targetClasses.computeIfAbsent(target.className(), className -> {
+                PsiClass found = classes.findClass(className);
+                if (found == null) {
+                    plan.classNotFound();
+                }
+                return Optional.ofNullable(found);
+            }).orElse(null);
+            if (targetClass == null) continue;
+
+            PsiModifierListOwner element = target.kind() == AnnotationTarget.Kind.CLASS
+                    ? targetClass
+                    : classes.findField(targetClass, target.member(), plan);
+            if (element != null) {
+                plan.addAnnotation(element, annotation.spec().render());
+            }
         }
     }
-}
\ No newline at end of file
+}
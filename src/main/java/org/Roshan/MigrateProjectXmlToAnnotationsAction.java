@@ -0,0 +1,81 @@
+package org.Roshan;
+
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.PlatformCoreDataKeys;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.search.GlobalSearchScope;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Migrates every Spring {@code <beans>} and Hibernate {@code <hibernate-mapping>} file of the
+ * project (or of the selected module) in one cancellable background run.
+ * In dry-run mode the run only shows the resulting changes as a diff.
+ */
+public class MigrateProjectXmlToAnnotationsAction extends AnAction {
+    private static final Logger LOG = Logger.getInstance(MigrateProjectXmlToAnnotationsAction.class);
+
+    private final boolean dryRun;
+
+    public MigrateProjectXmlToAnnotationsAction() {
+        this(false);
+    }
+
+    protected MigrateProjectXmlToAnnotationsAction(boolean dryRun) {
+        this.dryRun = dryRun;
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        if (project == null) return;
+
+        Module module = e.getData(PlatformCoreDataKeys.MODULE);
+        GlobalSearchScope scope = module != null
+                ? GlobalSearchScope.moduleScope(module)
+                : GlobalSearchScope.projectScope(project);
+        String target = module != null ? "XML of module " + module.getName() : "project XML";
+        String title = (dryRun ? "Previewing migration of " : "Migrating ") + target + " to annotations";
+
+        new MigrationTask(project, scope, title, dryRun).queue();
+    }
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        e.getPresentation().setEnabledAndVisible(e.getProject() != null);
+    }
+
+    private static class MigrationTask extends Task.Backgroundable {
+        private final GlobalSearchScope scope;
+        private final boolean dryRun;
+
+        MigrationTask(Project project, GlobalSearchScope scope, String title, boolean dryRun) {
+            super(project, title, true);
+            this.scope = scope;
+            this.dryRun = dryRun;
+        }
+
+        @Override
+        public void run(@NotNull ProgressIndicator indicator) {
+            ProjectMigrationRunner runner = new ProjectMigrationRunner(getProject(), scope, file -> true);
+            if (dryRun) {
+                List<MigrationPreview.FilePreview> previews = runner.preview(indicator);
+                ApplicationManager.getApplication().invokeLater(
+                        () -> MigrationPreview.show(getProject(), getTitle(), previews),
+                        getProject().getDisposed());
+                return;
+            }
+
+            ProjectMigrationRunner.Summary summary = runner.run(indicator);
+            LOG.info("Migrated " + summary.files() + " XML files, " + summary.plannedAnnotations()
+                    + " annotations planned");
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package org.Roshan;
+
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiMember;
+import com.intellij.psi.PsiModifierListOwner;
+import com.intellij.psi.PsiParameter;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder events for the phases of a migration, so a recording of a run shows
+ * where the time goes next to the GC and lock events of the same period.
+ * Creating and committing an event costs next to nothing while no recording enables it;
+ * attributes that need work to compute are only filled in when {@link Event#shouldCommit()}.
+ */
+final class MigrationEvents {
+    private static final String CATEGORY = "XML to Annotations";
+
+    private MigrationEvents() {
+    }
+
+    @Name("org.Roshan.TagDiscovery")
+    @Label("Tag Discovery")
+    @Description("Finding the bean or class tags of an XML file to migrate")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class TagDiscovery extends Event {
+        @Label("File Name")
+        String fileName;
+
+        @Label("Tag Count")
+        int tagCount;
+    }
+
+    @Name("org.Roshan.ClassResolution")
+    @Label("Class Resolution")
+    @Description("Resolving a class named in the XML that was not cached yet")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class ClassResolution extends Event {
+        @Label("Class Name")
+        String className;
+
+        @Label("Found")
+        boolean found;
+    }
+
+    @Name("org.Roshan.FieldLookup")
+    @Label("Field Lookup")
+    @Description("Finding the field a property mapping refers to")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class FieldLookup extends Event {
+        @Label("Element")
+        String element;
+
+        @Label("Found")
+        boolean found;
+    }
+
+    @Name("org.Roshan.AnnotationCreation")
+    @Label("Annotation Creation")
+    @Description("Creating the annotation PSI from its text or a cached prototype")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class AnnotationCreation extends Event {
+        @Label("Element")
+        String element;
+
+        @Label("Annotation")
+        String annotation;
+    }
+
+    @Name("org.Roshan.PsiInsertion")
+    @Label("PSI Insertion")
+    @Description("Adding a created annotation to a modifier list")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class PsiInsertion extends Event {
+        @Label("Element")
+        String element;
+
+        @Label("Annotation")
+        String annotation;
+    }
+
+    @Name("org.Roshan.ImportHandling")
+    @Label("Import Handling")
+    @Description("Adding the missing imports of a Java file and shortening its inserted annotations")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class ImportHandling extends Event {
+        @Label("File Name")
+        String fileName;
+
+        @Label("Imports Added")
+        int importsAdded;
+
+        @Label("Annotations Shortened")
+        int annotationsShortened;
+    }
+
+    @Name("org.Roshan.WriteCommand")
+    @Label("Write Command")
+    @Description("Applying the migration plan of one XML file in a write command")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class WriteCommand extends Event {
+        @Label("File Name")
+        String fileName;
+
+        @Label("Command")
+        String command;
+
+        @Label("Planned Changes")
+        int changeCount;
+    }
+
+    /**
+     * Qualified name of a class, field, method or parameter for the event attributes,
+     * e.g. {@code com.example.Order.customer}.
+     */
+    static String describe(PsiModifierListOwner element) {
+        if (element instanceof PsiClass psiClass) {
+            return String.valueOf(psiClass.getQualifiedName());
+        }
+        if (element instanceof PsiMember member) {
+            PsiClass containingClass = member.getContainingClass();
+            String className = containingClass != null ? containingClass.getQualifiedName() : null;
+            return className + "." + member.getName();
+        }
+        if (element instanceof PsiParameter parameter) {
+            return parameter.getName();
+        }
+        return element.toString();
+    }
+}
@@ -0,0 +1,212 @@
+package org.Roshan;
+
+import com.intellij.openapi.components.PersistentStateComponent;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.components.State;
+import com.intellij.openapi.components.Storage;
+import com.intellij.openapi.components.StoragePathMacros;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.SmartPsiElementPointer;
+import com.intellij.psi.xml.XmlTag;
+import com.intellij.util.containers.CollectionFactory;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers every migrated {@code <bean>} and {@code <class>} tag together with a fingerprint of
+ * the tag text, of the context its annotations depend on and of the class it was applied to, so
+ * later runs skip tags that are unchanged on all sides. The class side is hashed from its text
+ * after the run rather than taken from a modification stamp: stamps are not kept across restarts
+ * and change when the migration itself edits and saves the class. Within a session the class
+ * hashes are memoized per file modification stamp, so a class mapped by several tags is hashed
+ * once.
+ */
+@Service(Service.Level.PROJECT)
+@State(name = "XmlToAnnotationsFingerprints", storages = @Storage(StoragePathMacros.WORKSPACE_FILE))
+public final class MigrationFingerprints implements PersistentStateComponent<MigrationFingerprints.FingerprintState> {
+
+    /**
+     * Serialized form: tag key to {@code "<tag hash>:<class hash>"}.
+     */
+    public static final class FingerprintState {
+        public Map<String, String> fingerprints = new TreeMap<>();
+    }
+
+    /**
+     * A tag processed by a plan, recorded once the plan has been applied.
+     *
+     * @param key     File URL, tag name and the identifying attributes of the tag
+     * @param tagHash Hash of the tag text and of the context it depends on
+     * @param target  Pointer to the class the tag maps to
+     */
+    public record TagFingerprint(String key, long tagHash, SmartPsiElementPointer<PsiClass> target) {
+    }
+
+    private record ClassHash(long modificationStamp, long hash) {
+    }
+
+    private final Map<String, String> fingerprints = new ConcurrentHashMap<>();
+    private final Map<PsiClass, ClassHash> classHashes = CollectionFactory.createConcurrentWeakMap();
+
+    public static MigrationFingerprints getInstance(Project project) {
+        return project.getService(MigrationFingerprints.class);
+    }
+
+    /**
+     * Whether the tag, its context and its class are exactly as they were after the last run that
+     * processed them. Must be called inside a read action.
+     *
+     * @param key     The tag's {@link #getKey key}
+     * @param tagHash The tag's {@link #hash(XmlTag, long) hash} including its context
+     */
+    public boolean isUnchanged(String key, long tagHash, PsiClass psiClass) {
+        String recorded = fingerprints.get(key);
+        return recorded != null && recorded.equals(format(tagHash, hash(psiClass)));
+    }
+
+    /**
+     * Stores the fingerprints of applied tags, hashing their classes in their current state.
+     * Must be called inside a read action, after the plan's write command.
+     */
+    public void record(Collection<TagFingerprint> tagFingerprints) {
+        for (TagFingerprint fingerprint : tagFingerprints) {
+            PsiClass psiClass = fingerprint.target().getElement();
+            if (psiClass == null) {
+                fingerprints.remove(fingerprint.key());
+            } else {
+                fingerprints.put(fingerprint.key(), format(fingerprint.tagHash(), hash(psiClass)));
+            }
+        }
+    }
+
+    /**
+     * Drops the fingerprints of tags that are gone: those of the given fully processed files that
+     * the run did not see, and those of files that no longer exist.
+     *
+     * @param fileUrls URLs of the files every tag of which was looked at
+     * @param seenKeys Keys of the tags looked at
+     */
+    public void prune(Set<String> fileUrls, Set<String> seenKeys) {
+        VirtualFileManager fileManager = VirtualFileManager.getInstance();
+        fingerprints.keySet().removeIf(key -> {
+            if (seenKeys.contains(key)) return false;
+
+            int separator = key.indexOf('#');
+            String fileUrl = separator >= 0 ? key.substring(0, separator) : key;
+            return fileUrls.contains(fileUrl) || fileManager.findFileByUrl(fileUrl) == null;
+        });
+    }
+
+    @Override
+    public FingerprintState getState() {
+        FingerprintState state = new FingerprintState();
+        state.fingerprints.putAll(fingerprints);
+        return state;
+    }
+
+    @Override
+    public void loadState(@NotNull FingerprintState state) {
+        fingerprints.clear();
+        fingerprints.putAll(state.fingerprints);
+    }
+
+    /**
+     * Hash of the class text, reused while the class's file keeps its modification stamp.
+     */
+    private long hash(PsiClass psiClass) {
+        PsiFile file = psiClass.getContainingFile();
+        if (file == null) return hash(psiClass.getText());
+
+        long modificationStamp = file.getModificationStamp();
+        ClassHash cached = classHashes.get(psiClass);
+        if (cached != null && cached.modificationStamp() == modificationStamp) {
+            return cached.hash();
+        }
+        long hash = hash(psiClass.getText());
+        classHashes.put(psiClass, new ClassHash(modificationStamp, hash));
+        return hash;
+    }
+
+    /**
+     * Identifies a tag across runs by its file, name and id, name and class attributes, and its
+     * position among the preceding siblings with the same ones, so that anonymous beans of one
+     * class get keys of their own,
+     * e.g. {@code file:///app/context.xml#bean:orderService::com.example.OrderService:0}.
+     * The keys of all the tag's siblings are computed in one pass and added to {@code keys}, so a
+     * plan that looks at every tag of a file computes each key once.
+     *
+     * @param keys Keys computed so far for the tag's file
+     * @return The key, or {@code null} if the tag's file is not saved
+     */
+    @Nullable
+    static String getKey(XmlTag tag, Map<XmlTag, String> keys) {
+        String key = keys.get(tag);
+        if (key != null) return key;
+
+        PsiFile file = tag.getContainingFile();
+        VirtualFile virtualFile = file != null ? file.getOriginalFile().getVirtualFile() : null;
+        if (virtualFile == null) return null;
+
+        String prefix = virtualFile.getUrl() + "#";
+        XmlTag parent = tag.getParentTag();
+        if (parent == null) {
+            key = prefix + getIdentity(tag) + ":0";
+            keys.put(tag, key);
+            return key;
+        }
+
+        Map<String, Integer> positions = new HashMap<>();
+        for (XmlTag sibling : parent.getSubTags()) {
+            String identity = getIdentity(sibling);
+            int position = positions.merge(identity, 1, Integer::sum) - 1;
+            keys.put(sibling, prefix + identity + ":" + position);
+        }
+        return keys.get(tag);
+    }
+
+    private static String getIdentity(XmlTag tag) {
+        return tag.getName()
+                + ":" + nullToEmpty(tag.getAttributeValue("id"))
+                + ":" + nullToEmpty(tag.getAttributeValue("name"))
+                + ":" + nullToEmpty(tag.getAttributeValue("class"));
+    }
+
+    /**
+     * Hash of a tag's text combined with the hash of the context its annotations depend on.
+     */
+    static long hash(XmlTag tag, long contextHash) {
+        long tagHash = hash(tag.getText());
+        return contextHash == 0 ? tagHash : (tagHash ^ contextHash) * 0x100000001b3L;
+    }
+
+    /**
+     * 64-bit FNV-1a hash, so that unrelated edits practically never collide.
+     */
+    static long hash(String text) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < text.length(); i++) {
+            hash ^= text.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static String format(long tagHash, long classHash) {
+        return Long.toHexString(tagHash) + ":" + Long.toHexString(classHash);
+    }
+
+    private static String nullToEmpty(@Nullable String value) {
+        return value != null ? value : "";
+    }
+}
@@ -0,0 +1,166 @@
+package org.Roshan;
+
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and timings of the current (or last) migration run of a project, shown in the
+ * "Spring Migrator" tool window. Recording is lock-free, so the planning threads of a
+ * project-wide run can all report into it.
+ */
+@Service(Service.Level.PROJECT)
+public final class MigrationMetrics {
+    private static final int SLOWEST_FILE_COUNT = 10;
+
+    /**
+     * Time spent on one XML file, planning and applying together.
+     *
+     * @param path  The file's path, see {@link #getPath}
+     * @param nanos Planning and applying time
+     */
+    public record FileTiming(String path, long nanos) {
+    }
+
+    /**
+     * A consistent-enough copy of the counters for display.
+     */
+    public record Snapshot(boolean running,
+                           long elapsedNanos,
+                           long files,
+                           long tags,
+                           long classLookups,
+                           long classResolutionNanos,
+                           long annotationsCreated,
+                           long annotationCreationNanos,
+                           long writeCommands,
+                           long writeCommandNanos,
+                           long classesNotFound,
+                           long fieldsNotFound,
+                           List<FileTiming> slowestFiles) {
+
+        public double filesPerSecond() {
+            return perSecond(files);
+        }
+
+        public double tagsPerSecond() {
+            return perSecond(tags);
+        }
+
+        private double perSecond(long count) {
+            return elapsedNanos > 0 ? count * 1_000_000_000.0 / elapsedNanos : 0;
+        }
+    }
+
+    private final LongAdder files = new LongAdder();
+    private final LongAdder tags = new LongAdder();
+    private final LongAdder classLookups = new LongAdder();
+    private final LongAdder classResolutionNanos = new LongAdder();
+    private final LongAdder annotationsCreated = new LongAdder();
+    private final LongAdder annotationCreationNanos = new LongAdder();
+    private final LongAdder writeCommands = new LongAdder();
+    private final LongAdder writeCommandNanos = new LongAdder();
+    private final LongAdder classesNotFound = new LongAdder();
+    private final LongAdder fieldsNotFound = new LongAdder();
+    private final Map<String, LongAdder> fileNanos = new ConcurrentHashMap<>();
+
+    private volatile long runStartNanos;
+    private volatile long runEndNanos;
+    private volatile boolean running;
+
+    public static MigrationMetrics getInstance(Project project) {
+        return project.getService(MigrationMetrics.class);
+    }
+
+    /**
+     * Clears the counters of the previous run.
+     */
+    public void startRun() {
+        for (LongAdder counter : List.of(files, tags, classLookups, classResolutionNanos, annotationsCreated,
+                annotationCreationNanos, writeCommands, writeCommandNanos, classesNotFound, fieldsNotFound)) {
+            counter.reset();
+        }
+        fileNanos.clear();
+        runStartNanos = System.nanoTime();
+        running = true;
+    }
+
+    public void finishRun() {
+        runEndNanos = System.nanoTime();
+        running = false;
+    }
+
+    /**
+     * The path timings are recorded under: the file's presentable path, so files of the same
+     * name in different modules are kept apart, or its name if it has no file on disk.
+     */
+    public static String getPath(PsiFile file) {
+        VirtualFile virtualFile = file.getOriginalFile().getVirtualFile();
+        return virtualFile != null ? virtualFile.getPresentableUrl() : file.getName();
+    }
+
+    /**
+     * Records a finished plan. Called once per plan, after planning, so restarted planning read
+     * actions are not counted twice.
+     */
+    public void filePlanned(MigrationPlan plan) {
+        MigrationPlan.PlanningStats stats = plan.getStats();
+        if (stats == null) return;
+
+        files.increment();
+        tags.add(stats.tagCount());
+        classesNotFound.add(stats.classesNotFound());
+        fieldsNotFound.add(stats.fieldsNotFound());
+        fileNanos.computeIfAbsent(plan.getSourcePath(), key -> new LongAdder()).add(stats.planningNanos());
+    }
+
+    public void fileApplied(String path, long nanos) {
+        fileNanos.computeIfAbsent(path, key -> new LongAdder()).add(nanos);
+    }
+
+    public void classResolved(long nanos) {
+        classLookups.increment();
+        classResolutionNanos.add(nanos);
+    }
+
+    public void annotationCreated(long nanos) {
+        annotationsCreated.increment();
+        annotationCreationNanos.add(nanos);
+    }
+
+    public void writeCommandFinished(long nanos) {
+        writeCommands.increment();
+        writeCommandNanos.add(nanos);
+    }
+
+    public Snapshot snapshot() {
+        boolean isRunning = running;
+        long end = isRunning ? System.nanoTime() : runEndNanos;
+        List<FileTiming> slowestFiles = fileNanos.entrySet().stream()
+                .map(entry -> new FileTiming(entry.getKey(), entry.getValue().sum()))
+                .sorted(Comparator.comparingLong(FileTiming::nanos).reversed())
+                .limit(SLOWEST_FILE_COUNT)
+                .toList();
+
+        return new Snapshot(isRunning,
+                runStartNanos == 0 ? 0 : end - runStartNanos,
+                files.sum(),
+                tags.sum(),
+                classLookups.sum(),
+                classResolutionNanos.sum(),
+                annotationsCreated.sum(),
+                annotationCreationNanos.sum(),
+                writeCommands.sum(),
+                writeCommandNanos.sum(),
+                classesNotFound.sum(),
+                fieldsNotFound.sum(),
+                slowestFiles);
+    }
+}
@@ -0,0 +1,106 @@
+package org.Roshan;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.ui.components.JBLabel;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.table.JBTable;
+import com.intellij.util.ui.FormBuilder;
+import com.intellij.util.ui.JBUI;
+
+import javax.swing.JPanel;
+import javax.swing.Timer;
+import javax.swing.table.DefaultTableModel;
+import java.awt.BorderLayout;
+import java.util.Locale;
+
+/**
+ * Dashboard of {@link MigrationMetrics}: throughput, where the time goes and what was skipped,
+ * followed by the slowest files. Polls the metrics once a second while its tool window is
+ * shown, see {@link #setRefreshing}.
+ */
+final class MigrationMetricsPanel extends JPanel implements Disposable {
+    private static final int REFRESH_MILLIS = 1000;
+
+    private final MigrationMetrics metrics;
+    private final Timer timer;
+
+    private final JBLabel status = new JBLabel();
+    private final JBLabel throughput = new JBLabel();
+    private final JBLabel classResolution = new JBLabel();
+    private final JBLabel annotationCreation = new JBLabel();
+    private final JBLabel writeCommands = new JBLabel();
+    private final JBLabel skipped = new JBLabel();
+    private final DefaultTableModel slowestFiles = new DefaultTableModel(new Object[]{"File", "Time (ms)"}, 0) {
+        @Override
+        public boolean isCellEditable(int row, int column) {
+            return false;
+        }
+    };
+
+    MigrationMetricsPanel(MigrationMetrics metrics) {
+        super(new BorderLayout());
+        this.metrics = metrics;
+
+        JPanel summary = FormBuilder.createFormBuilder()
+                .addLabeledComponent("Status:", status)
+                .addLabeledComponent("Throughput:", throughput)
+                .addLabeledComponent("Class resolution:", classResolution)
+                .addLabeledComponent("Annotation creation:", annotationCreation)
+                .addLabeledComponent("Write commands:", writeCommands)
+                .addLabeledComponent("Skipped:", skipped)
+                .addSeparator()
+                .addComponent(new JBLabel("Slowest files"))
+                .getPanel();
+        summary.setBorder(JBUI.Borders.empty(8));
+
+        add(summary, BorderLayout.NORTH);
+        add(new JBScrollPane(new JBTable(slowestFiles)), BorderLayout.CENTER);
+
+        refresh();
+        timer = new Timer(REFRESH_MILLIS, e -> refresh());
+    }
+
+    /**
+     * Starts polling, refreshing right away, or stops it.
+     */
+    void setRefreshing(boolean refreshing) {
+        if (refreshing == timer.isRunning()) return;
+
+        if (refreshing) {
+            refresh();
+            timer.start();
+        } else {
+            timer.stop();
+        }
+    }
+
+    @Override
+    public void dispose() {
+        timer.stop();
+    }
+
+    private void refresh() {
+        MigrationMetrics.Snapshot snapshot = metrics.snapshot();
+
+        status.setText((snapshot.running() ? "Running, " : "Finished in ") + millis(snapshot.elapsedNanos()) + " ms");
+        throughput.setText(String.format(Locale.ROOT, "%.1f files/s, %.1f tags/s (%d files, %d tags)",
+                snapshot.filesPerSecond(), snapshot.tagsPerSecond(), snapshot.files(), snapshot.tags()));
+        classResolution.setText(timing(snapshot.classLookups(), "lookups", snapshot.classResolutionNanos()));
+        annotationCreation.setText(timing(snapshot.annotationsCreated(), "annotations", snapshot.annotationCreationNanos()));
+        writeCommands.setText(timing(snapshot.writeCommands(), "commands", snapshot.writeCommandNanos()));
+        skipped.setText(snapshot.classesNotFound() + " classes, " + snapshot.fieldsNotFound() + " fields not found");
+
+        slowestFiles.setRowCount(0);
+        for (MigrationMetrics.FileTiming file : snapshot.slowestFiles()) {
+            slowestFiles.addRow(new Object[]{file.path(), millis(file.nanos())});
+        }
+    }
+
+    private static String timing(long count, String unit, long nanos) {
+        return count + " " + unit + " in " + millis(nanos) + " ms";
+    }
+
+    private static long millis(long nanos) {
+        return nanos / 1_000_000;
+    }
+}
@@ -0,0 +1,277 @@
+package org.Roshan;
+
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiModifierList;
+import com.intellij.psi.PsiModifierListOwner;
+import com.intellij.psi.SmartPointerManager;
+import com.intellij.psi.SmartPsiElementPointer;
+import com.intellij.psi.xml.XmlTag;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable result of the read-only planning phase of a conversion: every annotation to add and
+ * the element it goes on. The plan holds no PSI write state, so it can be computed off the EDT
+ * and applied later in one short write command.
+ */
+public final class MigrationPlan {
+
+    /**
+     * A single annotation to add to a class, field or method.
+     *
+     * @param target         Pointer to the annotated element, survives reparses until applied
+     * @param annotationText The full annotation text
+     * @param qualifiedName  The annotation name as written in the text
+     */
+    public record AnnotationChange(SmartPsiElementPointer<PsiModifierListOwner> target,
+                                   String annotationText,
+                                   String qualifiedName) {
+    }
+
+    /**
+     * What building the plan took, reported to {@link MigrationMetrics} once per plan rather than
+     * while planning, since a non-blocking planning read action may be restarted.
+     *
+     * @param tagCount        Tags looked at
+     * @param planningNanos   Time spent building the plan
+     * @param classesNotFound Mapped classes that could not be resolved
+     * @param fieldsNotFound  Mapped fields missing from their class
+     */
+    public record PlanningStats(int tagCount, long planningNanos, int classesNotFound, int fieldsNotFound) {
+    }
+
+    private static final MigrationPlan EMPTY =
+            new MigrationPlan("", "", Collections.emptyList(), Collections.emptyList(), Collections.emptySet(), null);
+
+    private final String sourceName;
+    private final String sourcePath;
+    private final List<AnnotationChange> changes;
+    private final List<MigrationFingerprints.TagFingerprint> fingerprints;
+    private final Set<String> seenKeys;
+    @Nullable
+    private final PlanningStats stats;
+
+    private MigrationPlan(String sourceName, String sourcePath, List<AnnotationChange> changes,
+                          List<MigrationFingerprints.TagFingerprint> fingerprints, Set<String> seenKeys,
+                          @Nullable PlanningStats stats) {
+        this.sourceName = sourceName;
+        this.sourcePath = sourcePath;
+        this.changes = changes;
+        this.fingerprints = fingerprints;
+        this.seenKeys = seenKeys;
+        this.stats = stats;
+    }
+
+    public static MigrationPlan empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @param sourceFile The XML file the plan is built from
+     */
+    public static Builder builder(PsiFile sourceFile) {
+        return new Builder(sourceFile.getName(), MigrationMetrics.getPath(sourceFile));
+    }
+
+    /**
+     * Name of the XML file the plan is built from, for messages.
+     */
+    public String getSourceName() {
+        return sourceName;
+    }
+
+    /**
+     * Path of the XML file the plan is built from, which tells files of the same name apart in
+     * the metrics.
+     */
+    public String getSourcePath() {
+        return sourcePath;
+    }
+
+    public List<AnnotationChange> getChanges() {
+        return changes;
+    }
+
+    /**
+     * The tags this plan was built from, to be remembered once it is applied.
+     */
+    public List<MigrationFingerprints.TagFingerprint> getFingerprints() {
+        return fingerprints;
+    }
+
+    /**
+     * The fingerprint keys of every tag the plan looked at, whether it was unchanged or planned.
+     */
+    public Set<String> getSeenKeys() {
+        return seenKeys;
+    }
+
+    /**
+     * How the plan was built, null for the {@link #empty() empty} plan, which was not built from
+     * a file.
+     */
+    @Nullable
+    public PlanningStats getStats() {
+        return stats;
+    }
+
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    public int size() {
+        return changes.size();
+    }
+
+    /**
+     * Collects annotation changes while the XML is walked. Must be used inside a read action;
+     * annotations that already exist on the element or were planned before are skipped.
+     * Each element's existing annotations are scanned once, on first use.
+     */
+    public static final class Builder {
+        private final String sourceName;
+        private final String sourcePath;
+        private final List<AnnotationChange> changes = new ArrayList<>();
+        private final Map<PsiModifierListOwner, AnnotationPresence> presence = new HashMap<>();
+        private final List<MigrationFingerprints.TagFingerprint> fingerprints = new ArrayList<>();
+        private final Set<String> seenKeys = new HashSet<>();
+        private final Map<XmlTag, String> keys = new HashMap<>();
+        // The tag hash of the last isUnchanged check, which addFingerprint usually needs next
+        private XmlTag hashedTag;
+        private long hashedContext;
+        private long tagHash;
+        private final long startNanos = System.nanoTime();
+        private int tagCount;
+        private int classesNotFound;
+        private int fieldsNotFound;
+
+        private Builder(String sourceName, String sourcePath) {
+            this.sourceName = sourceName;
+            this.sourcePath = sourcePath;
+        }
+
+        /**
+         * Counts tags looked at, for the metrics.
+         */
+        public void addTagCount(int count) {
+            tagCount += count;
+        }
+
+        /**
+         * Counts a mapped class that could not be resolved.
+         */
+        public void classNotFound() {
+            classesNotFound++;
+        }
+
+        /**
+         * Counts a mapped field missing from its class.
+         */
+        public void fieldNotFound() {
+            fieldsNotFound++;
+        }
+
+        /**
+         * Plans an annotation for the element unless it is already present or planned.
+         *
+         * @param element        The element to add the annotation to
+         * @param annotationText The full annotation text
+         * @return true if the annotation was added to the plan
+         */
+        public boolean addAnnotation(@NotNull PsiModifierListOwner element, String annotationText) {
+            PsiModifierList modifierList = element.getModifierList();
+            if (modifierList == null) return false;
+
+            String qualifiedName = AnnotationSupport.extractQualifiedName(annotationText);
+            if (qualifiedName == null) return false;
+
+            AnnotationPresence annotations = presence.computeIfAbsent(element,
+                    key -> AnnotationPresence.of(modifierList));
+            if (annotations.has(qualifiedName)) {
+                return false;
+            }
+            annotations.add(qualifiedName);
+
+            changes.add(new AnnotationChange(
+                    SmartPointerManager.createPointer(element),
+                    annotationText,
+                    qualifiedName));
+            return true;
+        }
+
+        /**
+         * Whether the element has or is planned to get any of the known annotations in the mask.
+         *
+         * @see AnnotationPresence#bitsOf
+         */
+        boolean hasAnyAnnotation(@NotNull PsiModifierListOwner element, long annotationBits) {
+            AnnotationPresence annotations = getPresence(element);
+            return annotations != null && annotations.hasAny(annotationBits);
+        }
+
+        private AnnotationPresence getPresence(PsiModifierListOwner element) {
+            AnnotationPresence annotations = presence.get(element);
+            if (annotations == null) {
+                PsiModifierList modifierList = element.getModifierList();
+                if (modifierList == null) return null;
+                annotations = AnnotationPresence.of(modifierList);
+                presence.put(element, annotations);
+            }
+            return annotations;
+        }
+
+        /**
+         * Whether the tag, the context it depends on and its class are exactly as they were after
+         * the last run that processed them. Either way the tag counts as seen by this plan.
+         *
+         * @param contextHash Hash of what else the tag's annotations depend on, 0 for nothing
+         */
+        public boolean isUnchanged(@NotNull XmlTag tag, long contextHash, @NotNull PsiClass psiClass) {
+            String key = MigrationFingerprints.getKey(tag, keys);
+            if (key == null) return false;
+
+            seenKeys.add(key);
+            return MigrationFingerprints.getInstance(psiClass.getProject())
+                    .isUnchanged(key, getTagHash(tag, contextHash), psiClass);
+        }
+
+        /**
+         * Records that the tag mapping to the class was processed by this plan.
+         *
+         * @param contextHash Hash of what else the tag's annotations depend on, 0 for nothing
+         */
+        public void addFingerprint(@NotNull XmlTag tag, long contextHash, @NotNull PsiClass psiClass) {
+            String key = MigrationFingerprints.getKey(tag, keys);
+            if (key == null) return;
+
+            seenKeys.add(key);
+            fingerprints.add(new MigrationFingerprints.TagFingerprint(key,
+                    getTagHash(tag, contextHash),
+                    SmartPointerManager.createPointer(psiClass)));
+        }
+
+        private long getTagHash(XmlTag tag, long contextHash) {
+            if (tag != hashedTag || contextHash != hashedContext) {
+                hashedTag = tag;
+                hashedContext = contextHash;
+                tagHash = MigrationFingerprints.hash(tag, contextHash);
+            }
+            return tagHash;
+        }
+
+        public MigrationPlan build() {
+            return new MigrationPlan(sourceName, sourcePath, List.copyOf(changes), List.copyOf(fingerprints),
+                    Set.copyOf(seenKeys),
+                    new PlanningStats(tagCount, System.nanoTime() - startNanos, classesNotFound, fieldsNotFound));
+        }
+    }
+}
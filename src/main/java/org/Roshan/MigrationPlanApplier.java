@@ -0,0 +1,365 @@
+package org.Roshan;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.*;
+import com.intellij.psi.codeStyle.CodeStyleManager;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies a {@link MigrationPlan}. All lookups and text building already happened while
+ * planning, so the write lock is only held for the PSI insertions; imports, documents and
+ * formatting are handled once per file and chunk instead of after every element.
+ * Small plans are applied in a single write command. Large plans are applied from a background
+ * task in time-boxed chunks, one write command each, so the EDT can process typing in between.
+ * The chunks share a command group, so chunks that follow each other directly undo as one step;
+ * a command the user runs between two chunks, such as typing, starts a new undo step. A cancelled
+ * chunked run removes the annotations and imports its chunks added, so no file is left half
+ * migrated.
+ */
+final class MigrationPlanApplier {
+    private static final Logger LOG = Logger.getInstance(MigrationPlanApplier.class);
+
+    /**
+     * Plans with more changes than this are applied in chunks.
+     */
+    static final int CHUNKED_APPLY_THRESHOLD = 500;
+
+    /**
+     * How long a chunk may insert annotations before it finishes its imports and formatting and
+     * releases the write lock.
+     */
+    private static final long CHUNK_TIME_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(40);
+
+    /**
+     * Upper bound for the changes of one chunk, which bounds the import and formatting pass too.
+     */
+    private static final int MAX_CHUNK_SIZE = 250;
+
+    private MigrationPlanApplier() {
+    }
+
+    /**
+     * Applies the plan from the EDT: small plans right away, large ones in chunks from a
+     * cancellable background task.
+     *
+     * @param onFinished Called on the EDT once the plan is applied, cancelled or failed
+     */
+    static void applyAsync(Project project, MigrationPlan plan, String commandName, Runnable onFinished) {
+        if (plan.size() <= CHUNKED_APPLY_THRESHOLD) {
+            try {
+                apply(project, plan, commandName);
+            } finally {
+                onFinished.run();
+            }
+            return;
+        }
+
+        new Task.Backgroundable(project, "Applying " + plan.size() + " annotations from " + plan.getSourceName(), true) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                indicator.setIndeterminate(false);
+                applyInChunks(project, plan, commandName, new AnnotationTemplateCache(project), indicator, 0, 1);
+            }
+
+            @Override
+            public void onCancel() {
+                LOG.info("Applying " + plan.getSourceName() + " was cancelled, the annotations added so far were removed");
+            }
+
+            @Override
+            public void onFinished() {
+                onFinished.run();
+            }
+        }.queue();
+    }
+
+    static void apply(Project project, MigrationPlan plan, String commandName) {
+        apply(project, plan, commandName, new AnnotationTemplateCache(project));
+    }
+
+    /**
+     * Applies the plan reusing annotation prototypes parsed by earlier plans of the same run.
+     */
+    static void apply(Project project, MigrationPlan plan, String commandName,
+                      AnnotationTemplateCache templates) {
+        if (plan.isEmpty()) {
+            // Nothing to add, but the tags are up to date now
+            MigrationFingerprints.getInstance(project).record(plan.getFingerprints());
+            return;
+        }
+
+        MigrationMetrics metrics = MigrationMetrics.getInstance(project);
+        MigrationEvents.WriteCommand event = new MigrationEvents.WriteCommand();
+        event.begin();
+        long start = System.nanoTime();
+        ChangeSession session = new ChangeSession(project, templates, metrics);
+        WriteCommandAction.writeCommandAction(project)
+                .withName(commandName)
+                .run(() -> session.applyChunk(plan.getChanges(), 0, Long.MAX_VALUE, Integer.MAX_VALUE));
+        long nanos = System.nanoTime() - start;
+        event.end();
+        if (event.shouldCommit()) {
+            event.fileName = plan.getSourceName();
+            event.command = commandName;
+            event.changeCount = plan.size();
+            event.commit();
+        }
+        metrics.writeCommandFinished(nanos);
+        metrics.fileApplied(plan.getSourcePath(), nanos);
+        MigrationFingerprints.getInstance(project).record(plan.getFingerprints());
+    }
+
+    /**
+     * Applies the plan in chunks, waiting for each on the EDT. Must be called from a background
+     * thread. Between chunks the EDT is free and cancellation is checked; a cancelled run rolls
+     * back the chunks applied so far in one more command before rethrowing.
+     *
+     * @param fractionStart Indicator fraction at the start, for callers applying several plans
+     * @param fractionEnd   Indicator fraction once the plan is applied
+     */
+    static void applyInChunks(Project project, MigrationPlan plan, String commandName,
+                              AnnotationTemplateCache templates, ProgressIndicator indicator,
+                              double fractionStart, double fractionEnd) {
+        if (plan.isEmpty()) {
+            recordFingerprints(project, plan);
+            return;
+        }
+
+        MigrationMetrics metrics = MigrationMetrics.getInstance(project);
+        ChangeSession session = new ChangeSession(project, templates, metrics);
+        List<MigrationPlan.AnnotationChange> changes = plan.getChanges();
+        // Consecutive commands with the same group id are merged into one undo step
+        String groupId = commandName + ":" + UUID.randomUUID();
+        int[] next = {0};
+        long writeNanos = 0;
+
+        while (next[0] < changes.size()) {
+            try {
+                indicator.checkCanceled();
+            } catch (ProcessCanceledException e) {
+                rollBack(project, session, commandName, groupId);
+                throw e;
+            }
+            indicator.setFraction(fractionStart + (fractionEnd - fractionStart) * next[0] / changes.size());
+            indicator.setText2(plan.getSourceName() + ": " + next[0] + " of " + changes.size() + " annotations");
+
+            int from = next[0];
+            MigrationEvents.WriteCommand event = new MigrationEvents.WriteCommand();
+            event.begin();
+            long start = System.nanoTime();
+            ApplicationManager.getApplication().invokeAndWait(() -> {
+                if (project.isDisposed()) return;
+                WriteCommandAction.writeCommandAction(project)
+                        .withName(commandName)
+                        .withGroupId(groupId)
+                        .run(() -> next[0] = session.applyChunk(changes, from, CHUNK_TIME_BUDGET_NANOS, MAX_CHUNK_SIZE));
+            }, ModalityState.defaultModalityState());
+            long nanos = System.nanoTime() - start;
+            event.end();
+            if (next[0] == from) {
+                // The project was closed
+                return;
+            }
+            if (event.shouldCommit()) {
+                event.fileName = plan.getSourceName();
+                event.command = commandName;
+                event.changeCount = next[0] - from;
+                event.commit();
+            }
+            metrics.writeCommandFinished(nanos);
+            writeNanos += nanos;
+        }
+
+        indicator.setFraction(fractionEnd);
+        metrics.fileApplied(plan.getSourcePath(), writeNanos);
+        recordFingerprints(project, plan);
+    }
+
+    /**
+     * Removes what the session's chunks added, waiting for it on the EDT.
+     */
+    private static void rollBack(Project project, ChangeSession session, String commandName, String groupId) {
+        ApplicationManager.getApplication().invokeAndWait(() -> {
+            if (project.isDisposed()) return;
+            WriteCommandAction.writeCommandAction(project)
+                    .withName(commandName)
+                    .withGroupId(groupId)
+                    .run(session::rollBack);
+        }, ModalityState.defaultModalityState());
+    }
+
+    /**
+     * Records the plan's fingerprints from a background thread; hashing the classes reads PSI.
+     */
+    static void recordFingerprints(Project project, MigrationPlan plan) {
+        ReadAction.run(() -> {
+            if (!project.isDisposed()) {
+                MigrationFingerprints.getInstance(project).record(plan.getFingerprints());
+            }
+        });
+    }
+
+    /**
+     * State shared by the chunks of one plan: annotation prototypes, the annotations found on or
+     * added to each modifier list so far, and what the chunks added, for a rollback.
+     */
+    private static final class ChangeSession {
+        private final Project project;
+        private final AnnotationTemplateCache templates;
+        private final MigrationMetrics metrics;
+        private final Map<PsiModifierList, AnnotationPresence> presence = new HashMap<>();
+        private final List<SmartPsiElementPointer<PsiElement>> added = new ArrayList<>();
+
+        private ChangeSession(Project project, AnnotationTemplateCache templates, MigrationMetrics metrics) {
+            this.project = project;
+            this.templates = templates;
+            this.metrics = metrics;
+        }
+
+        /**
+         * Applies changes starting at {@code from} until the time budget or the size limit is
+         * reached, then adds the imports and reformats what the chunk touched, so no document is
+         * left blocked when the write lock is released. Must run in a write command.
+         *
+         * @return The index of the first change not applied
+         */
+        int applyChunk(List<MigrationPlan.AnnotationChange> changes, int from, long timeBudgetNanos, int maxChanges) {
+            DeferredImportPass importPass = new DeferredImportPass(project);
+            Map<PsiFile, Set<PsiModifierList>> modifiedLists = new LinkedHashMap<>();
+            long deadline = System.nanoTime() + timeBudgetNanos;
+            int end = (int) Math.min(changes.size(), (long) from + maxChanges);
+
+            int next = from;
+            // At least one change per chunk, so every chunk makes progress
+            while (next < end && (next == from || System.nanoTime() - deadline < 0)) {
+                applyChange(changes.get(next++), importPass, modifiedLists);
+            }
+
+            importPass.run();
+            SmartPointerManager pointerManager = SmartPointerManager.getInstance(project);
+            for (PsiElement element : importPass.getAddedImports()) {
+                added.add(pointerManager.createSmartPsiElementPointer(element));
+            }
+            modifiedLists.forEach((file, modifierLists) -> reformatOnce(project, file, modifierLists));
+            return next;
+        }
+
+        private void applyChange(MigrationPlan.AnnotationChange change, DeferredImportPass importPass,
+                                 Map<PsiFile, Set<PsiModifierList>> modifiedLists) {
+            PsiModifierListOwner element = change.target().getElement();
+            if (element == null) return;
+
+            PsiModifierList modifierList = element.getModifierList();
+            if (modifierList == null) return;
+
+            // The PSI may have changed between planning and applying
+            AnnotationPresence annotations = presence.computeIfAbsent(modifierList, AnnotationPresence::of);
+            if (annotations.has(change.qualifiedName())) {
+                return;
+            }
+
+            try {
+                MigrationEvents.AnnotationCreation creation = new MigrationEvents.AnnotationCreation();
+                creation.begin();
+                long creationStart = System.nanoTime();
+                PsiAnnotation annotation = templates.createAnnotation(change.annotationText());
+                metrics.annotationCreated(System.nanoTime() - creationStart);
+                creation.end();
+                if (creation.shouldCommit()) {
+                    creation.element = MigrationEvents.describe(element);
+                    creation.annotation = change.qualifiedName();
+                    creation.commit();
+                }
+
+                MigrationEvents.PsiInsertion insertion = new MigrationEvents.PsiInsertion();
+                insertion.begin();
+                PsiElement inserted = modifierList.addAfter(annotation, null);
+                insertion.end();
+                if (insertion.shouldCommit()) {
+                    insertion.element = MigrationEvents.describe(element);
+                    insertion.annotation = change.qualifiedName();
+                    insertion.commit();
+                }
+
+                added.add(SmartPointerManager.getInstance(project).createSmartPsiElementPointer(inserted));
+                if (inserted instanceof PsiAnnotation insertedAnnotation) {
+                    importPass.register(insertedAnnotation);
+                }
+                annotations.add(change.qualifiedName());
+                modifiedLists.computeIfAbsent(element.getContainingFile(), key -> new LinkedHashSet<>())
+                        .add(modifierList);
+            } catch (ProcessCanceledException e) {
+                throw e;
+            } catch (Exception e) {
+                LOG.warn("Failed to add " + change.annotationText() + " to " + MigrationEvents.describe(element), e);
+            }
+        }
+
+        /**
+         * Deletes the annotations and imports added so far, newest first, and reformats the
+         * modifier lists they were removed from. Must run in a write command.
+         */
+        void rollBack() {
+            Map<PsiFile, Set<PsiModifierList>> modifiedLists = new LinkedHashMap<>();
+            for (int i = added.size() - 1; i >= 0; i--) {
+                PsiElement element = added.get(i).getElement();
+                if (element == null) continue;
+
+                if (element.getParent() instanceof PsiModifierList modifierList) {
+                    modifiedLists.computeIfAbsent(element.getContainingFile(), key -> new LinkedHashSet<>())
+                            .add(modifierList);
+                }
+                element.delete();
+            }
+            added.clear();
+            presence.clear();
+            modifiedLists.forEach((file, modifierLists) -> reformatOnce(project, file, modifierLists));
+        }
+    }
+
+    /**
+     * Unblocks the file's document and reformats every modified modifier list in one pass.
+     */
+    private static void reformatOnce(Project project, PsiFile file, Set<PsiModifierList> modifierLists) {
+        if (!file.isValid()) return;
+
+        PsiDocumentManager documentManager = PsiDocumentManager.getInstance(project);
+        Document document = documentManager.getDocument(file);
+        if (document != null) {
+            documentManager.doPostponedOperationsAndUnblockDocument(document);
+        }
+
+        List<TextRange> ranges = new ArrayList<>(modifierLists.size());
+        for (PsiModifierList modifierList : modifierLists) {
+            if (modifierList.isValid()) {
+                ranges.add(modifierList.getTextRange());
+            }
+        }
+        if (!ranges.isEmpty()) {
+            CodeStyleManager.getInstance(project).reformatText(file, ranges);
+        }
+        if (document != null) {
+            documentManager.commitDocument(document);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package org.Roshan;
+
+import com.intellij.diff.DiffContentFactory;
+import com.intellij.diff.DiffManager;
+import com.intellij.diff.chains.SimpleDiffRequestChain;
+import com.intellij.diff.requests.SimpleDiffRequest;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiModifierList;
+import com.intellij.psi.PsiModifierListOwner;
+import com.intellij.psi.PsiParameter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Dry run of one or more {@link MigrationPlan}s. The planned annotations are spliced into the
+ * text of each Java file as plain strings, so previewing takes only read actions and never
+ * builds modified PSI. Annotations appear fully qualified; shortening them and adding the
+ * imports is left to the real run.
+ */
+final class MigrationPreview {
+
+    /**
+     * Old and new text of one Java file touched by the plans.
+     *
+     * @param file            The Java file
+     * @param originalText    Current text of the file
+     * @param previewText     Text of the file after the annotations are added
+     * @param annotationCount Number of annotations added to the file
+     */
+    record FilePreview(VirtualFile file, String originalText, String previewText, int annotationCount) {
+    }
+
+    /**
+     * An annotation and where it goes in its file's text.
+     */
+    private record Insertion(int offset, String text) {
+    }
+
+    private MigrationPreview() {
+    }
+
+    /**
+     * Computes the preview of every Java file the plans touch, ordered by path.
+     * Must run inside a read action.
+     */
+    static List<FilePreview> compute(Collection<MigrationPlan> plans) {
+        Map<PsiFile, List<Insertion>> insertions = new LinkedHashMap<>();
+        Map<PsiModifierListOwner, Set<String>> plannedNames = new LinkedHashMap<>();
+
+        for (MigrationPlan plan : plans) {
+            for (MigrationPlan.AnnotationChange change : plan.getChanges()) {
+                ProgressManager.checkCanceled();
+                PsiModifierListOwner element = change.target().getElement();
+                if (element == null) continue;
+
+                PsiModifierList modifierList = element.getModifierList();
+                if (modifierList == null) continue;
+
+                // Different XML files may plan the same annotation, the applier adds it once
+                if (!plannedNames.computeIfAbsent(element, key -> new HashSet<>()).add(change.qualifiedName())) {
+                    continue;
+                }
+
+                PsiFile file = element.getContainingFile();
+                insertions.computeIfAbsent(file, key -> new ArrayList<>())
+                        .add(createInsertion(file, element, modifierList, change.annotationText()));
+            }
+        }
+
+        List<FilePreview> previews = new ArrayList<>(insertions.size());
+        insertions.forEach((file, fileInsertions) -> {
+            VirtualFile virtualFile = file.getVirtualFile();
+            if (virtualFile == null) return;
+
+            String originalText = file.getText();
+            previews.add(new FilePreview(virtualFile, originalText,
+                    applyInsertions(originalText, fileInsertions), fileInsertions.size()));
+        });
+        previews.sort(Comparator.comparing(preview -> preview.file().getPath()));
+        return previews;
+    }
+
+    /**
+     * Shows the previews as a diff chain, one request per file titled with its annotation count.
+     * Must be called on the EDT.
+     */
+    static void show(Project project, String title, List<FilePreview> previews) {
+        if (previews.isEmpty()) {
+            Messages.showInfoMessage(project, "Nothing to migrate, no annotations would be added.", title);
+            return;
+        }
+
+        DiffContentFactory contentFactory = DiffContentFactory.getInstance();
+        List<SimpleDiffRequest> requests = new ArrayList<>(previews.size());
+        int annotationCount = 0;
+        for (FilePreview preview : previews) {
+            annotationCount += preview.annotationCount();
+            requests.add(new SimpleDiffRequest(
+                    preview.file().getName() + " (+" + preview.annotationCount() + " "
+                            + StringUtil.pluralize("annotation", preview.annotationCount()) + ")",
+                    contentFactory.create(project, preview.originalText(), preview.file().getFileType()),
+                    contentFactory.create(project, preview.previewText(), preview.file().getFileType()),
+                    "Current",
+                    "After migration"));
+        }
+
+        SimpleDiffRequestChain chain = new SimpleDiffRequestChain(requests);
+        chain.setTitle(title + ": " + annotationCount + " annotations in " + previews.size() + " files");
+        DiffManager.getInstance().showDiff(project, chain, null);
+    }
+
+    /**
+     * Mirrors the applier, which adds every annotation as the first child of the modifier list:
+     * classes, fields and methods get it on a line of its own, parameters inline.
+     */
+    private static Insertion createInsertion(PsiFile file, PsiModifierListOwner element,
+                                             PsiModifierList modifierList, String annotationText) {
+        int offset = modifierList.getTextRange().getStartOffset();
+        if (element instanceof PsiParameter) {
+            return new Insertion(offset, annotationText + " ");
+        }
+
+        CharSequence text = file.getViewProvider().getContents();
+        int lineStart = StringUtil.lastIndexOf(text, '\n', 0, offset) + 1;
+        int indentEnd = lineStart;
+        while (indentEnd < offset && (text.charAt(indentEnd) == ' ' || text.charAt(indentEnd) == '\t')) {
+            indentEnd++;
+        }
+        return new Insertion(offset, annotationText + "\n" + text.subSequence(lineStart, indentEnd));
+    }
+
+    private static String applyInsertions(String text, List<Insertion> insertions) {
+        // Back to front keeps the offsets valid; on equal offsets the later annotation ends up first,
+        // just like repeated inserts at the start of a modifier list
+        List<Insertion> sorted = new ArrayList<>(insertions);
+        sorted.sort(Comparator.comparingInt(Insertion::offset).reversed());
+
+        StringBuilder result = new StringBuilder(text);
+        for (Insertion insertion : sorted) {
+            result.insert(insertion.offset(), insertion.text());
+        }
+        return result.toString();
+    }
+}
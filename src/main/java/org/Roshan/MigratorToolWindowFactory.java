@@ -0,0 +1,35 @@
+package org.Roshan;
+
+import com.intellij.openapi.project.DumbAware;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Disposer;
+import com.intellij.openapi.wm.ToolWindow;
+import com.intellij.openapi.wm.ToolWindowFactory;
+import com.intellij.openapi.wm.ToolWindowManager;
+import com.intellij.openapi.wm.ex.ToolWindowManagerListener;
+import com.intellij.ui.content.Content;
+import com.intellij.ui.content.ContentFactory;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Creates the "Spring Migrator" tool window showing the metrics of the current migration run.
+ */
+public class MigratorToolWindowFactory implements ToolWindowFactory, DumbAware {
+
+    @Override
+    public void createToolWindowContent(@NotNull Project project, @NotNull ToolWindow toolWindow) {
+        MigrationMetricsPanel panel = new MigrationMetricsPanel(MigrationMetrics.getInstance(project));
+        Content content = ContentFactory.getInstance().createContent(panel, "Metrics", false);
+        Disposer.register(content, panel);
+        toolWindow.getContentManager().addContent(content);
+
+        // Only poll the metrics while they can be seen
+        panel.setRefreshing(toolWindow.isVisible());
+        project.getMessageBus().connect(panel).subscribe(ToolWindowManagerListener.TOPIC, new ToolWindowManagerListener() {
+            @Override
+            public void stateChanged(@NotNull ToolWindowManager toolWindowManager) {
+                panel.setRefreshing(!toolWindow.isDisposed() && toolWindow.isVisible());
+            }
+        });
+    }
+}
@@ -0,0 +1,12 @@
+package org.Roshan;
+
+/**
+ * Dry run of {@link MigrateProjectXmlToAnnotationsAction}: plans the whole project or module
+ * and shows the annotations that would be added per file, without writing anything.
+ */
+public class PreviewProjectXmlToAnnotationsAction extends MigrateProjectXmlToAnnotationsAction {
+
+    public PreviewProjectXmlToAnnotationsAction() {
+        super(true);
+    }
+}
@@ -0,0 +1,67 @@
+package org.Roshan;
+
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.CommonDataKeys;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.xml.XmlFile;
+import com.intellij.psi.xml.XmlTag;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Dry run of the Spring or Hibernate conversion of the current XML file (or its selection):
+ * shows the annotations that would be added as a diff without modifying anything.
+ */
+public class PreviewXmlToAnnotationsAction extends AnAction {
+    private static final String TITLE = "XML to Annotations Preview";
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getRequiredData(CommonDataKeys.PROJECT);
+        Editor editor = e.getRequiredData(CommonDataKeys.EDITOR);
+        PsiFile psiFile = e.getRequiredData(CommonDataKeys.PSI_FILE);
+
+        if (!(psiFile instanceof XmlFile xmlFile)) {
+            return;
+        }
+        TextRange selection = XmlTagSelection.getSelectionRange(editor);
+
+        ReadAction.nonBlocking(() -> MigrationPreview.compute(List.of(buildMigrationPlan(project, xmlFile, selection))))
+                .inSmartMode(project)
+                .expireWith(project)
+                .finishOnUiThread(ModalityState.defaultModalityState(),
+                        previews -> MigrationPreview.show(project, TITLE, previews))
+                .submit(AppExecutorUtil.getAppExecutorService());
+    }
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        PsiFile psiFile = e.getData(CommonDataKeys.PSI_FILE);
+        e.getPresentation().setEnabledAndVisible(
+                project != null && psiFile instanceof XmlFile
+        );
+    }
+
+    private static MigrationPlan buildMigrationPlan(Project project, XmlFile xmlFile, TextRange selection) {
+        XmlTag rootTag = xmlFile.getRootTag();
+        if (rootTag == null) return MigrationPlan.empty();
+
+        ClassResolutionCache classes = new ClassResolutionCache(project);
+        return switch (rootTag.getName()) {
+            case SpringXmlToAnnotationsAction.BEANS_TAG ->
+                    new SpringXmlToAnnotationsAction().buildMigrationPlan(classes, xmlFile, selection);
+            case HibernateXmlToAnnotationsAction.HIBERNATE_MAPPING_TAG ->
+                    new HibernateXmlToAnnotationsAction().buildMigrationPlan(classes, xmlFile, selection);
+            default -> MigrationPlan.empty();
+        };
+    }
+}
@@ -0,0 +1,266 @@
+package org.Roshan;
+
+import com.intellij.concurrency.JobLauncher;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.xml.XmlFile;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Migrates all Spring and Hibernate XML files of a scope: the files are looked up in
+ * {@link XmlMappingIndex}, planned concurrently in read actions on all available cores and then
+ * applied file by file on the EDT. Used by the project-wide actions and by the headless runner.
+ */
+final class ProjectMigrationRunner {
+    private static final Logger LOG = Logger.getInstance(ProjectMigrationRunner.class);
+
+    /**
+     * An XML file declaring Spring beans or Hibernate classes.
+     */
+    private record MappingFile(VirtualFile file, XmlMappingIndex.MappingKind kind) {
+    }
+
+    /**
+     * Outcome of one run.
+     *
+     * @param springFiles        Number of Spring context files processed
+     * @param hibernateFiles     Number of Hibernate mapping files processed
+     * @param plannedAnnotations Number of annotations planned over all files
+     * @param planningMillis     Wall time of the concurrent planning phase
+     * @param applyMillis        Wall time of the write phase
+     * @param classCacheHits     Class lookups answered by the run's resolution cache
+     * @param classCacheMisses   Class lookups that went to the index
+     */
+    record Summary(int springFiles,
+                   int hibernateFiles,
+                   int plannedAnnotations,
+                   long planningMillis,
+                   long applyMillis,
+                   long classCacheHits,
+                   long classCacheMisses) {
+
+        int files() {
+            return springFiles + hibernateFiles;
+        }
+
+        double filesPerSecond() {
+            long totalMillis = planningMillis + applyMillis;
+            return totalMillis > 0 ? files() * 1000.0 / totalMillis : files();
+        }
+    }
+
+    private final Project project;
+    private final GlobalSearchScope scope;
+    private final Predicate<VirtualFile> fileFilter;
+
+    ProjectMigrationRunner(Project project, GlobalSearchScope scope, Predicate<VirtualFile> fileFilter) {
+        this.project = project;
+        this.scope = scope;
+        this.fileFilter = fileFilter;
+    }
+
+    Summary run(ProgressIndicator indicator) {
+        MigrationMetrics metrics = MigrationMetrics.getInstance(project);
+        metrics.startRun();
+        try {
+            return migrate(lookUpMappingFiles(indicator), indicator);
+        } finally {
+            metrics.finishRun();
+        }
+    }
+
+    /**
+     * Migrates the given Hibernate mapping files together, e.g. those listed by a session factory
+     * configuration, sharing one class cache and one set of annotation prototypes.
+     */
+    Summary runHibernateFiles(Collection<VirtualFile> files, ProgressIndicator indicator) {
+        List<MappingFile> mappingFiles = new ArrayList<>(files.size());
+        for (VirtualFile file : files) {
+            if (fileFilter.test(file)) {
+                mappingFiles.add(new MappingFile(file, XmlMappingIndex.MappingKind.HIBERNATE_CLASS));
+            }
+        }
+
+        MigrationMetrics metrics = MigrationMetrics.getInstance(project);
+        metrics.startRun();
+        try {
+            return migrate(mappingFiles, indicator);
+        } finally {
+            metrics.finishRun();
+        }
+    }
+
+    /**
+     * Plans all files like {@link #run} but only computes the resulting file texts,
+     * without taking the write lock.
+     */
+    List<MigrationPreview.FilePreview> preview(ProgressIndicator indicator) {
+        MigrationMetrics metrics = MigrationMetrics.getInstance(project);
+        metrics.startRun();
+        try {
+            List<MappingFile> mappingFiles = lookUpMappingFiles(indicator);
+            Map<MappingFile, MigrationPlan> plans = planFiles(new ClassResolutionCache(project), mappingFiles, indicator);
+
+            indicator.setText("Computing preview");
+            return ReadAction.nonBlocking(() -> MigrationPreview.compute(plans.values()))
+                    .inSmartMode(project)
+                    .wrapProgress(indicator)
+                    .executeSynchronously();
+        } finally {
+            metrics.finishRun();
+        }
+    }
+
+    private Summary migrate(List<MappingFile> mappingFiles, ProgressIndicator indicator) {
+        long planningStart = System.currentTimeMillis();
+        ClassResolutionCache classes = new ClassResolutionCache(project);
+        Map<MappingFile, MigrationPlan> plans = planFiles(classes, mappingFiles, indicator);
+        long planningMillis = System.currentTimeMillis() - planningStart;
+        LOG.info("Class resolution cache: " + classes.getHitCount() + " hits, "
+                + classes.getMissCount() + " misses");
+
+        long applyStart = System.currentTimeMillis();
+        indicator.setIndeterminate(false);
+        indicator.setText("Applying annotations");
+        AnnotationTemplateCache templates = new AnnotationTemplateCache(project);
+        int springFiles = 0;
+        int plannedAnnotations = 0;
+        for (int i = 0; i < mappingFiles.size(); i++) {
+            indicator.checkCanceled();
+            MappingFile mappingFile = mappingFiles.get(i);
+            indicator.setFraction((double) i / mappingFiles.size());
+            indicator.setText2(mappingFile.file().getPresentableUrl());
+            if (isSpring(mappingFile)) springFiles++;
+
+            MigrationPlan plan = plans.get(mappingFile);
+            if (plan == null) continue;
+            if (plan.isEmpty()) {
+                // Nothing to add, but the tags are up to date now
+                MigrationPlanApplier.recordFingerprints(project, plan);
+                continue;
+            }
+            plannedAnnotations += plan.size();
+            if (plan.size() > MigrationPlanApplier.CHUNKED_APPLY_THRESHOLD) {
+                // Keep the EDT responsive while a large file is applied
+                MigrationPlanApplier.applyInChunks(project, plan, getCommandName(mappingFile), templates, indicator,
+                        (double) i / mappingFiles.size(), (double) (i + 1) / mappingFiles.size());
+                continue;
+            }
+            ApplicationManager.getApplication().invokeAndWait(
+                    () -> MigrationPlanApplier.apply(project, plan, getCommandName(mappingFile), templates),
+                    ModalityState.defaultModalityState());
+        }
+        indicator.setFraction(1.0);
+        pruneFingerprints(mappingFiles, plans);
+
+        return new Summary(springFiles,
+                mappingFiles.size() - springFiles,
+                plannedAnnotations,
+                planningMillis,
+                System.currentTimeMillis() - applyStart,
+                classes.getHitCount(),
+                classes.getMissCount());
+    }
+
+    /**
+     * Forgets the fingerprints of tags removed from the migrated files, and of deleted files.
+     */
+    private void pruneFingerprints(List<MappingFile> mappingFiles, Map<MappingFile, MigrationPlan> plans) {
+        Set<String> fileUrls = new HashSet<>();
+        Set<String> seenKeys = new HashSet<>();
+        for (MappingFile mappingFile : mappingFiles) {
+            MigrationPlan plan = plans.get(mappingFile);
+            if (plan != null) {
+                fileUrls.add(mappingFile.file().getUrl());
+                seenKeys.addAll(plan.getSeenKeys());
+            }
+        }
+        MigrationFingerprints.getInstance(project).prune(fileUrls, seenKeys);
+    }
+
+    /**
+     * Plans all files concurrently. Planning only reads PSI, so each file gets its own
+     * non-blocking read action on the pooled threads; the writes happen afterwards.
+     */
+    private Map<MappingFile, MigrationPlan> planFiles(ClassResolutionCache classes,
+                                                      List<MappingFile> mappingFiles,
+                                                      ProgressIndicator indicator) {
+        indicator.setText("Planning conversions");
+        SpringXmlToAnnotationsAction springAction = new SpringXmlToAnnotationsAction();
+        HibernateXmlToAnnotationsAction hibernateAction = new HibernateXmlToAnnotationsAction();
+        Map<MappingFile, MigrationPlan> plans = new ConcurrentHashMap<>();
+        MigrationMetrics metrics = MigrationMetrics.getInstance(project);
+
+        JobLauncher.getInstance().invokeConcurrentlyUnderProgress(mappingFiles, indicator, mappingFile -> {
+            MigrationPlan plan = ReadAction.nonBlocking(() -> {
+                        XmlFile xmlFile = findXmlFile(mappingFile.file());
+                        if (xmlFile == null) return MigrationPlan.empty();
+                        return isSpring(mappingFile)
+                                ? springAction.buildMigrationPlan(classes, xmlFile, null)
+                                : hibernateAction.buildMigrationPlan(classes, xmlFile, null);
+                    })
+                    .inSmartMode(project)
+                    .wrapProgress(indicator)
+                    .executeSynchronously();
+            metrics.filePlanned(plan);
+            plans.put(mappingFile, plan);
+            return true;
+        });
+        indicator.checkCanceled();
+        return plans;
+    }
+
+    private List<MappingFile> lookUpMappingFiles(ProgressIndicator indicator) {
+        indicator.setIndeterminate(true);
+        indicator.setText("Looking up Spring and Hibernate XML files");
+        return DumbService.getInstance(project).runReadActionInSmartMode(this::findMappingFiles);
+    }
+
+    private static boolean isSpring(MappingFile mappingFile) {
+        return mappingFile.kind() == XmlMappingIndex.MappingKind.SPRING_BEAN;
+    }
+
+    private static String getCommandName(MappingFile mappingFile) {
+        return isSpring(mappingFile)
+                ? SpringXmlToAnnotationsAction.COMMAND_NAME
+                : HibernateXmlToAnnotationsAction.COMMAND_NAME;
+    }
+
+    @Nullable
+    private XmlFile findXmlFile(VirtualFile file) {
+        if (project.isDisposed() || !file.isValid()) return null;
+        PsiFile psiFile = PsiManager.getInstance(project).findFile(file);
+        return psiFile instanceof XmlFile xmlFile ? xmlFile : null;
+    }
+
+    /**
+     * Looks the mapping files up in {@link XmlMappingIndex} instead of parsing every XML file.
+     */
+    private List<MappingFile> findMappingFiles() {
+        List<MappingFile> mappingFiles = new ArrayList<>();
+        XmlMappingIndex.findMappingFiles(scope).forEach((file, kind) -> {
+            if (fileFilter.test(file)) {
+                mappingFiles.add(new MappingFile(file, kind));
+            }
+        });
+        return mappingFiles;
+    }
+}
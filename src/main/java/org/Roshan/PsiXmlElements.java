@@ -0,0 +1,43 @@
+package org.Roshan;
+
+import com.intellij.psi.xml.XmlAttribute;
+import com.intellij.psi.xml.XmlTag;
+import org.Roshan.core.XmlElement;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converts PSI tags into the conversion core's {@link XmlElement}, so the core's readers see the
+ * editor's current text, unsaved changes included.
+ */
+final class PsiXmlElements {
+
+    private PsiXmlElements() {
+    }
+
+    /**
+     * Copies a tag and its sub-tags. Must be called in a read action.
+     */
+    static XmlElement toElement(XmlTag tag) {
+        Map<String, String> attributes = new LinkedHashMap<>();
+        for (XmlAttribute attribute : tag.getAttributes()) {
+            // Entities decoded, as the core's StAX parser does in batch mode
+            String value = attribute.getDisplayValue();
+            if (value == null) continue;
+
+            // Unprefixed attributes have no namespace, whatever the tag's default namespace is
+            String namespace = attribute.getNamespacePrefix().isEmpty() ? "" : attribute.getNamespace();
+            attributes.put(XmlElement.qualify(namespace, attribute.getLocalName()), value);
+        }
+
+        XmlTag[] subTags = tag.getSubTags();
+        List<XmlElement> children = new ArrayList<>(subTags.length);
+        for (XmlTag subTag : subTags) {
+            children.add(toElement(subTag));
+        }
+        return new XmlElement(tag.getLocalName(), attributes, children, tag.getValue().getTrimmedText());
+    }
+}
@@ -0,0 +1,542 @@
+package org.Roshan;
+
+import com.intellij.concurrency.JobLauncher;
+import com.intellij.lang.xml.XMLLanguage;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.progress.EmptyProgressIndicator;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.util.ProgressIndicatorUtils;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.InheritanceUtil;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.psi.xml.XmlFile;
+import com.intellij.psi.xml.XmlTag;
+import com.intellij.util.indexing.FileBasedIndex;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Bean definitions of all Spring XML files of the project: ids, names, aliases, parent beans,
+ * references and {@code <import resource>} links. Files are parsed concurrently and the result is
+ * kept per file; after an XML change only the files whose modification stamp moved are parsed again.
+ * A {@link BeanContext} joins the files connected through imports, which is what one application
+ * context sees when resolving a reference.
+ */
+@Service(Service.Level.PROJECT)
+public final class SpringBeanGraph {
+    private static final String BEAN_TAG = "bean";
+    private static final String ALIAS_TAG = "alias";
+    private static final String IMPORT_TAG = "import";
+    private static final String CLASSPATH_PREFIX = "classpath:";
+    private static final String CLASSPATH_ALL_PREFIX = "classpath*:";
+
+    /**
+     * One {@code <bean>} tag.
+     *
+     * @param file      The XML file declaring the bean
+     * @param id        The id attribute, null for anonymous and inner beans
+     * @param names     The names from the name attribute
+     * @param className The class attribute, null if inherited from the parent bean
+     * @param parent    The parent bean name, null if none
+     * @param refs      Names of the beans referenced by properties and constructor args
+     */
+    public record BeanDefinition(VirtualFile file,
+                                 @Nullable String id,
+                                 List<String> names,
+                                 @Nullable String className,
+                                 @Nullable String parent,
+                                 List<String> refs) {
+
+        /**
+         * The name to qualify an injection of this bean with.
+         */
+        @Nullable
+        public String primaryName() {
+            if (id != null) return id;
+            return names.isEmpty() ? null : names.get(0);
+        }
+    }
+
+    /**
+     * What one XML file contributes to the graph.
+     */
+    private record FileModel(long modificationStamp,
+                             List<BeanDefinition> beans,
+                             Map<String, String> aliases,
+                             List<VirtualFile> imports) {
+    }
+
+    /**
+     * The parsed files and the contexts joined from them, replaced as a whole and never modified
+     * once published, so readers need no lock.
+     *
+     * @param xmlModificationCount The XML modification count the files were parsed at
+     * @param psiModificationCount The PSI modification count the contexts' candidates are valid for
+     * @param files                The model of every parsed file
+     * @param contexts             Contexts joined so far, by the file they were requested for
+     */
+    private record Snapshot(long xmlModificationCount,
+                            long psiModificationCount,
+                            Map<VirtualFile, FileModel> files,
+                            Map<VirtualFile, BeanContext> contexts) {
+    }
+
+    /**
+     * A refresh in flight, which other threads needing the same XML state wait for.
+     *
+     * @param xmlModificationCount The XML modification count being parsed
+     * @param files                Completed with the refreshed models, or with null if the
+     *                             refreshing thread failed or was cancelled
+     */
+    private record Refresh(long xmlModificationCount, CompletableFuture<Map<VirtualFile, FileModel>> files) {
+    }
+
+    private final Project project;
+    private final AtomicReference<Snapshot> snapshot =
+            new AtomicReference<>(new Snapshot(-1, -1, Map.of(), new ConcurrentHashMap<>()));
+    private final AtomicReference<Refresh> refreshing = new AtomicReference<>();
+
+    public SpringBeanGraph(Project project) {
+        this.project = project;
+    }
+
+    public static SpringBeanGraph getInstance(Project project) {
+        return project.getService(SpringBeanGraph.class);
+    }
+
+    /**
+     * The beans visible from the given file: its own and those of every file connected to it
+     * through {@code <import resource>}. Must be called in a read action in smart mode.
+     */
+    public BeanContext getContext(XmlFile xmlFile) {
+        VirtualFile file = xmlFile.getOriginalFile().getVirtualFile();
+        if (file == null) return BeanContext.EMPTY;
+
+        Snapshot current = getSnapshot();
+        if (!current.files().containsKey(file)) {
+            // Not indexed yet or outside the project scope, e.g. a file opened from a library
+            Map<VirtualFile, FileModel> files = new HashMap<>(current.files());
+            parseAll(List.of(file), files);
+            current = publish(current, new Snapshot(current.xmlModificationCount(), current.psiModificationCount(),
+                    Map.copyOf(files), new ConcurrentHashMap<>()));
+        }
+        Map<VirtualFile, FileModel> files = current.files();
+        return current.contexts().computeIfAbsent(file, contextFile -> buildContext(contextFile, files));
+    }
+
+    /**
+     * The current snapshot, re-parsing the files changed since it was taken. Only changes to XML
+     * files or to the index make files parsed again; any other PSI change only drops the joined
+     * contexts, since the candidates they cache depend on the Java classes. Cheap when nothing
+     * changed in between.
+     */
+    private Snapshot getSnapshot() {
+        Snapshot current = snapshot.get();
+        // Both counts only grow, so their sum changes whenever either does
+        long xmlModificationCount = PsiModificationTracker.getInstance(project)
+                .forLanguage(XMLLanguage.INSTANCE).getModificationCount()
+                + FileBasedIndex.getInstance().getIndexModificationStamp(XmlMappingIndex.NAME, project);
+        long psiModificationCount = PsiModificationTracker.getInstance(project).getModificationCount();
+        if (current.xmlModificationCount() == xmlModificationCount
+                && current.psiModificationCount() == psiModificationCount) {
+            return current;
+        }
+
+        Map<VirtualFile, FileModel> files = current.xmlModificationCount() == xmlModificationCount
+                ? current.files()
+                : refreshOnce(current.files(), xmlModificationCount);
+        return publish(current, new Snapshot(xmlModificationCount, psiModificationCount, files,
+                new ConcurrentHashMap<>()));
+    }
+
+    /**
+     * Publishes a snapshot unless another thread replaced the expected one meanwhile. Either way
+     * the caller goes on with its own snapshot, which is consistent in itself.
+     */
+    private Snapshot publish(Snapshot expected, Snapshot updated) {
+        snapshot.compareAndSet(expected, updated);
+        return updated;
+    }
+
+    /**
+     * Refreshes the file models for the given XML state, or waits for the thread already doing so
+     * and reuses its result, so concurrently planning threads parse each stale file once.
+     */
+    private Map<VirtualFile, FileModel> refreshOnce(Map<VirtualFile, FileModel> previous, long xmlModificationCount) {
+        while (true) {
+            Refresh running = refreshing.get();
+            if (running != null && running.xmlModificationCount() == xmlModificationCount) {
+                Map<VirtualFile, FileModel> files = ProgressIndicatorUtils.awaitWithCheckCanceled(running.files());
+                if (files != null) return files;
+                // The refreshing thread gave up, take over
+                refreshing.compareAndSet(running, null);
+                continue;
+            }
+
+            Refresh refresh = new Refresh(xmlModificationCount, new CompletableFuture<>());
+            if (!refreshing.compareAndSet(running, refresh)) continue;
+
+            Map<VirtualFile, FileModel> files = null;
+            try {
+                files = refresh(previous);
+                return files;
+            } finally {
+                refresh.files().complete(files);
+            }
+        }
+    }
+
+    /**
+     * A copy of the file models with every Spring file of the project whose modification stamp
+     * moved parsed again.
+     */
+    private Map<VirtualFile, FileModel> refresh(Map<VirtualFile, FileModel> previous) {
+        Set<VirtualFile> springFiles = new LinkedHashSet<>();
+        XmlMappingIndex.findMappingFiles(GlobalSearchScope.projectScope(project)).forEach((file, kind) -> {
+            if (kind == XmlMappingIndex.MappingKind.SPRING_BEAN) {
+                springFiles.add(file);
+            }
+        });
+        Map<VirtualFile, FileModel> files = new HashMap<>(previous);
+        files.keySet().removeIf(file -> !file.isValid());
+
+        List<VirtualFile> staleFiles = new ArrayList<>();
+        PsiManager psiManager = PsiManager.getInstance(project);
+        for (VirtualFile file : springFiles) {
+            FileModel model = files.get(file);
+            PsiFile psiFile = psiManager.findFile(file);
+            if (model == null || psiFile == null || model.modificationStamp() != psiFile.getModificationStamp()) {
+                staleFiles.add(file);
+            }
+        }
+        for (Map.Entry<VirtualFile, FileModel> entry : files.entrySet()) {
+            PsiFile psiFile = psiManager.findFile(entry.getKey());
+            if (!springFiles.contains(entry.getKey()) && psiFile != null
+                    && entry.getValue().modificationStamp() != psiFile.getModificationStamp()) {
+                staleFiles.add(entry.getKey());
+            }
+        }
+
+        parseAll(staleFiles, files);
+        return Map.copyOf(files);
+    }
+
+    /**
+     * Parses the files concurrently into the given models, following their imports to files not
+     * parsed yet. The models are only written from the calling thread.
+     */
+    private void parseAll(Collection<VirtualFile> filesToParse, Map<VirtualFile, FileModel> files) {
+        ProgressIndicator indicator = ProgressManager.getGlobalProgressIndicator();
+        if (indicator == null) {
+            indicator = new EmptyProgressIndicator();
+        }
+
+        List<VirtualFile> pending = new ArrayList<>(filesToParse);
+        while (!pending.isEmpty()) {
+            Map<VirtualFile, FileModel> parsed = new ConcurrentHashMap<>();
+            JobLauncher.getInstance().invokeConcurrentlyUnderProgress(pending, indicator, file -> {
+                FileModel model = parse(file);
+                if (model != null) {
+                    parsed.put(file, model);
+                }
+                return true;
+            });
+            ProgressManager.checkCanceled();
+            files.putAll(parsed);
+
+            Set<VirtualFile> imported = new LinkedHashSet<>();
+            for (FileModel model : parsed.values()) {
+                for (VirtualFile importedFile : model.imports()) {
+                    if (!files.containsKey(importedFile)) {
+                        imported.add(importedFile);
+                    }
+                }
+            }
+            pending = new ArrayList<>(imported);
+        }
+    }
+
+    @Nullable
+    private FileModel parse(VirtualFile file) {
+        if (!file.isValid()) return null;
+        PsiFile psiFile = PsiManager.getInstance(project).findFile(file);
+        if (!(psiFile instanceof XmlFile xmlFile)) return null;
+
+        XmlTag rootTag = xmlFile.getRootTag();
+        if (rootTag == null || !SpringXmlToAnnotationsAction.BEANS_TAG.equals(rootTag.getName())) {
+            return new FileModel(psiFile.getModificationStamp(), List.of(), Map.of(), List.of());
+        }
+
+        List<BeanDefinition> beans = new ArrayList<>();
+        Map<String, String> aliases = new HashMap<>();
+        List<VirtualFile> imports = new ArrayList<>();
+        for (XmlTag tag : rootTag.getSubTags()) {
+            switch (tag.getName()) {
+                case BEAN_TAG -> collectBeans(file, tag, beans);
+                case ALIAS_TAG -> {
+                    String name = tag.getAttributeValue("name");
+                    String alias = tag.getAttributeValue("alias");
+                    if (name != null && alias != null) {
+                        aliases.put(alias.trim(), name.trim());
+                    }
+                }
+                case IMPORT_TAG -> {
+                    VirtualFile importedFile = resolveImport(file, tag.getAttributeValue("resource"));
+                    if (importedFile != null) {
+                        imports.add(importedFile);
+                    }
+                }
+            }
+        }
+        return new FileModel(psiFile.getModificationStamp(), beans, aliases, imports);
+    }
+
+    /**
+     * Adds the bean and the inner beans declared inside its properties and constructor args.
+     */
+    private static void collectBeans(VirtualFile file, XmlTag beanTag, List<BeanDefinition> beans) {
+        List<String> refs = new ArrayList<>();
+        collectRefs(beanTag, refs, beans, file);
+
+        beans.add(new BeanDefinition(file,
+                trimToNull(beanTag.getAttributeValue("id")),
+                splitNames(beanTag.getAttributeValue("name")),
+                trimToNull(beanTag.getAttributeValue("class")),
+                trimToNull(beanTag.getAttributeValue("parent")),
+                List.copyOf(refs)));
+    }
+
+    private static void collectRefs(XmlTag tag, List<String> refs, List<BeanDefinition> beans, VirtualFile file) {
+        for (XmlTag subTag : tag.getSubTags()) {
+            if (BEAN_TAG.equals(subTag.getName())) {
+                collectBeans(file, subTag, beans);
+                continue;
+            }
+            String ref = getRefName(subTag);
+            if (ref != null) {
+                refs.add(ref);
+            }
+            collectRefs(subTag, refs, beans, file);
+        }
+    }
+
+    /**
+     * The bean referenced by a {@code <property>}, {@code <constructor-arg>} or {@code <ref>} tag,
+     * either through the {@code ref} attribute or a nested {@code <ref bean>}.
+     */
+    @Nullable
+    static String getRefName(XmlTag tag) {
+        String ref = tag.getAttributeValue("ref");
+        if (ref == null && "ref".equals(tag.getName())) {
+            ref = tag.getAttributeValue("bean");
+        }
+        if (ref == null) {
+            XmlTag refTag = tag.findFirstSubTag("ref");
+            ref = refTag != null ? refTag.getAttributeValue("bean") : null;
+        }
+        return trimToNull(ref);
+    }
+
+    /**
+     * Resolves an import relative to the importing file or, for {@code classpath:} resources,
+     * against the source and resource roots of the project.
+     */
+    @Nullable
+    private VirtualFile resolveImport(VirtualFile file, @Nullable String resource) {
+        if (resource == null || resource.isBlank() || resource.contains("${")) return null;
+        resource = resource.trim();
+
+        if (resource.startsWith(CLASSPATH_ALL_PREFIX) || resource.startsWith(CLASSPATH_PREFIX)) {
+            String path = StringUtil.trimStart(resource.substring(resource.indexOf(':') + 1), "/");
+            for (VirtualFile root : ProjectRootManager.getInstance(project).getContentSourceRoots()) {
+                VirtualFile importedFile = root.findFileByRelativePath(path);
+                if (importedFile != null) return importedFile;
+            }
+            return null;
+        }
+
+        VirtualFile directory = file.getParent();
+        return directory != null ? directory.findFileByRelativePath(StringUtil.trimStart(resource, "file:")) : null;
+    }
+
+    /**
+     * Joins every file reachable from the given one over imports in either direction.
+     */
+    private BeanContext buildContext(VirtualFile file, Map<VirtualFile, FileModel> files) {
+        Map<VirtualFile, Set<VirtualFile>> links = new HashMap<>();
+        files.forEach((source, model) -> {
+            for (VirtualFile importedFile : model.imports()) {
+                links.computeIfAbsent(source, key -> new HashSet<>()).add(importedFile);
+                links.computeIfAbsent(importedFile, key -> new HashSet<>()).add(source);
+            }
+        });
+
+        Set<VirtualFile> contextFiles = new LinkedHashSet<>();
+        Deque<VirtualFile> queue = new ArrayDeque<>();
+        queue.add(file);
+        while (!queue.isEmpty()) {
+            VirtualFile current = queue.poll();
+            if (!contextFiles.add(current)) continue;
+            queue.addAll(links.getOrDefault(current, Set.of()));
+        }
+
+        List<BeanDefinition> beans = new ArrayList<>();
+        Map<String, String> aliases = new HashMap<>();
+        for (VirtualFile contextFile : contextFiles) {
+            FileModel model = files.get(contextFile);
+            if (model != null) {
+                beans.addAll(model.beans());
+                aliases.putAll(model.aliases());
+            }
+        }
+        // Contexts are dropped on every PSI change, so their class cache does not outlive a run
+        return new BeanContext(beans, aliases, new ClassResolutionCache(project));
+    }
+
+    private static List<String> splitNames(@Nullable String names) {
+        if (names == null || names.isBlank()) return List.of();
+        return Arrays.stream(names.trim().split("[,;\\s]+")).toList();
+    }
+
+    @Nullable
+    private static String trimToNull(@Nullable String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    /**
+     * The beans of one set of connected context files, with lookups by name and by type.
+     * Type candidates are computed on first use and cached.
+     */
+    public static final class BeanContext {
+        static final BeanContext EMPTY = new BeanContext(List.of(), Map.of(), null);
+
+        private final List<BeanDefinition> beans;
+        private final Map<String, BeanDefinition> beansByName = new HashMap<>();
+        @Nullable
+        private final ClassResolutionCache classes;
+        private final Map<String, List<BeanDefinition>> candidatesByType = new ConcurrentHashMap<>();
+        private volatile long fingerprint;
+
+        private BeanContext(List<BeanDefinition> beans, Map<String, String> aliases,
+                            @Nullable ClassResolutionCache classes) {
+            this.beans = beans;
+            this.classes = classes;
+            for (BeanDefinition bean : beans) {
+                if (bean.id() != null) {
+                    beansByName.putIfAbsent(bean.id(), bean);
+                }
+                for (String name : bean.names()) {
+                    beansByName.putIfAbsent(name, bean);
+                }
+            }
+            aliases.forEach((alias, name) -> {
+                BeanDefinition bean = resolveAlias(name, aliases);
+                if (bean != null) {
+                    beansByName.putIfAbsent(alias, bean);
+                }
+            });
+        }
+
+        @Nullable
+        private BeanDefinition resolveAlias(String name, Map<String, String> aliases) {
+            // Aliases may point to aliases, stop on cycles
+            Set<String> seen = new HashSet<>();
+            while (!beansByName.containsKey(name) && aliases.containsKey(name) && seen.add(name)) {
+                name = aliases.get(name);
+            }
+            return beansByName.get(name);
+        }
+
+        /**
+         * Hash of the ids, names, classes and parents of all beans of the context, independent of
+         * the order of its files. Changes whenever a bean that could become a candidate for an
+         * injection point is added, removed or changes its type.
+         */
+        public long getFingerprint() {
+            long hash = fingerprint;
+            if (hash == 0) {
+                List<String> definitions = new ArrayList<>(beans.size());
+                for (BeanDefinition bean : beans) {
+                    definitions.add(bean.id() + ":" + bean.names() + ":" + bean.className() + ":" + bean.parent());
+                }
+                Collections.sort(definitions);
+                // Never 0, which stands for no context
+                hash = MigrationFingerprints.hash(String.join("\n", definitions)) | 1;
+                fingerprint = hash;
+            }
+            return hash;
+        }
+
+        /**
+         * Finds a bean by id, name or alias.
+         */
+        @Nullable
+        public BeanDefinition findBean(String name) {
+            return beansByName.get(name);
+        }
+
+        /**
+         * The class of the bean, inherited from its parent beans if it declares none.
+         */
+        @Nullable
+        public String getEffectiveClassName(BeanDefinition bean) {
+            Set<BeanDefinition> seen = new HashSet<>();
+            while (bean != null && bean.className() == null && bean.parent() != null && seen.add(bean)) {
+                bean = findBean(bean.parent());
+            }
+            return bean != null ? bean.className() : null;
+        }
+
+        /**
+         * Finds a bean class through the context's class cache.
+         */
+        @Nullable
+        public PsiClass findClass(String className) {
+            return classes != null ? classes.findClass(className) : null;
+        }
+
+        /**
+         * Every bean of the context that can be injected into a point of the given type.
+         * Must be called in a read action.
+         */
+        public List<BeanDefinition> getCandidates(PsiClass type) {
+            String typeName = type.getQualifiedName();
+            if (typeName == null || classes == null) return Collections.emptyList();
+
+            return candidatesByType.computeIfAbsent(typeName, key -> {
+                List<BeanDefinition> candidates = new ArrayList<>();
+                for (BeanDefinition bean : beans) {
+                    String className = getEffectiveClassName(bean);
+                    PsiClass beanClass = className != null ? classes.findClass(className) : null;
+                    if (beanClass != null && InheritanceUtil.isInheritorOrSelf(beanClass, type, true)) {
+                        candidates.add(bean);
+                    }
+                }
+                return List.copyOf(candidates);
+            });
+        }
+    }
+}
@@ -3,27 +3,39 @@ package org.Roshan;
 import com.intellij.openapi.actionSystem.AnAction;
 import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.actionSystem.CommonDataKeys;
-import com.intellij.openapi.editor.SelectionModel;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.TextRange;
-import com.intellij.psi.util.PsiTreeUtil;
-import com.intellij.openapi.command.WriteCommandAction;
 import com.intellij.openapi.editor.Editor;
 import com.intellij.psi.*;
-import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.PsiUtil;
 import com.intellij.psi.xml.XmlFile;
 import com.intellij.psi.xml.XmlTag;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import org.Roshan.core.AnnotationSpec;
+import org.Roshan.core.AnnotationTarget;
+import org.Roshan.core.PlannedAnnotation;
+import org.Roshan.core.SpringAnnotationRules;
+import org.Roshan.core.SpringBeansReader;
+import org.Roshan.core.SpringModel;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Collections;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Optional;
 
 public class SpringXmlToAnnotationsAction extends AnAction {
-    private static final String BEANS_TAG = "beans";
-    private static final String BEAN_TAG = "bean";
+    private static final Logger LOG = Logger.getInstance(SpringXmlToAnnotationsAction.class);
+    static final String COMMAND_NAME = "Spring XML to Annotations";
+    static final String BEANS_TAG = SpringBeansReader.BEANS_TAG;
+    private static final String BEAN_TAG = SpringBeansReader.BEAN_TAG;
 
     @Override
     public void actionPerformed(@NotNull AnActionEvent e) {
@@ -34,12 +46,11 @@ public class SpringXmlToAnnotationsAction extends AnAction {
         if (!(psiFile instanceof XmlFile xmlFile)) {
             return;
         }
-        System.out.println(" Main root tag is : ");
         XmlTag rootTag = xmlFile.getRootTag();
         if (rootTag == null || !BEANS_TAG.equals(rootTag.getName())) {
+            LOG.debug("Not a Spring beans file: " + xmlFile.getName());
             return;
         }
-        System.out.println(" root tag is : " + rootTag.getName());
         convertSpringXmlToAnnotations(project, xmlFile, editor);
 
     }
@@ -53,203 +64,173 @@ public class SpringXmlToAnnotationsAction extends AnAction {
         );
     }
 
-    protected void convertSpringXmlToAnnotations(Project project, XmlFile xmlFile, Editor editor) {
+    protected void convertSpringXmlToAnnotations(Project project, XmlFile xmlFile, @Nullable Editor editor) {
+        TextRange selection = XmlTagSelection.getSelectionRange(editor);
+        MigrationMetrics metrics = MigrationMetrics.getInstance(project);
+        metrics.startRun();
+
+        ReadAction.nonBlocking(() -> buildMigrationPlan(new ClassResolutionCache(project), xmlFile, selection))
+                .inSmartMode(project)
+                .expireWith(project)
+                .finishOnUiThread(ModalityState.defaultModalityState(),
+                        plan -> {
+                            metrics.filePlanned(plan);
+                            MigrationPlanApplier.applyAsync(project, plan, COMMAND_NAME, metrics::finishRun);
+                        })
+                .submit(AppExecutorUtil.getAppExecutorService())
+                .onError(error -> metrics.finishRun());
+    }
+
+    /**
+     * Builds the migration plan for all beans of the file, or of the selection if one is given.
+     * Every bean ends up in the same plan, so the whole run is applied as one undoable command.
+     * Class lookups go through the given run-scoped cache.
+     */
+    MigrationPlan buildMigrationPlan(ClassResolutionCache classes, XmlFile xmlFile, @Nullable TextRange selection) {
+        if (!xmlFile.isValid()) return MigrationPlan.empty();
+
         XmlTag rootTag = xmlFile.getRootTag();
         if (rootTag == null || !BEANS_TAG.equals(rootTag.getName())) {
-            return;
+            return MigrationPlan.empty();
         }
 
-        JavaPsiFacade psiFacade = JavaPsiFacade.getInstance(project);
-        PsiElementFactory elementFactory = PsiElementFactory.getInstance(project);
+        MigrationPlan.Builder plan = MigrationPlan.builder(xmlFile);
 
         // Get selected tags or all tags
-        List<XmlTag> tagsToProcess = getTagsToProcess(xmlFile, editor);
+        MigrationEvents.TagDiscovery discovery = new MigrationEvents.TagDiscovery();
+        discovery.begin();
+        List<XmlTag> tagsToProcess = getTagsToProcess(xmlFile, selection);
+        discovery.end();
+        if (discovery.shouldCommit()) {
+            discovery.fileName = xmlFile.getName();
+            discovery.tagCount = tagsToProcess.size();
+            discovery.commit();
+        }
+        plan.addTagCount(tagsToProcess.size());
+
+        // Bean definitions of this file and the files it imports or is imported by
+        SpringBeanGraph.BeanContext beans = tagsToProcess.isEmpty()
+                ? SpringBeanGraph.BeanContext.EMPTY
+                : SpringBeanGraph.getInstance(classes.getProject()).getContext(xmlFile);
 
         // Process the tags
-        tagsToProcess.stream()
-                .filter(tag -> BEAN_TAG.equals(tag.getName()))
-                .forEach(beanTag -> processBean(project, beanTag, psiFacade, elementFactory));
+        for (XmlTag tag : tagsToProcess) {
+            if (BEAN_TAG.equals(tag.getName())) {
+                ProgressManager.checkCanceled();
+                processBean(tag, classes, beans, plan);
+            }
+        }
 
+        return plan.build();
     }
-    private List<XmlTag> getTagsToProcess(XmlFile xmlFile, Editor editor) {
-        SelectionModel selectionModel = editor.getSelectionModel();
 
-        if (!selectionModel.hasSelection()) {
+    List<XmlTag> getTagsToProcess(XmlFile xmlFile, @Nullable TextRange selection) {
+        XmlTag rootTag = xmlFile.getRootTag();
+        if (rootTag == null) return Collections.emptyList();
+
+        if (selection == null) {
             // If no selection, process all tags under root
-            XmlTag rootTag = xmlFile.getRootTag();
-            return rootTag != null ? Arrays.asList(rootTag.getSubTags()) : Collections.emptyList();
+            return Arrays.asList(rootTag.getSubTags());
         }
 
-        // Get the selected text range
-        int start = selectionModel.getSelectionStart();
-        int end = selectionModel.getSelectionEnd();
-
-        // Find all XML tags within the selection
-        return findTagsInRange(xmlFile, start, end);
+        // Find all bean tags within the selection
+        return XmlTagSelection.findTagsInRange(rootTag, selection, BEAN_TAG);
     }
 
-    private List<XmlTag> findTagsInRange(XmlFile xmlFile, int start, int end) {
-        return PsiTreeUtil.findChildrenOfType(xmlFile, XmlTag.class).stream()
-                .filter(tag -> {
-                    TextRange tagRange = tag.getTextRange();
-                    return tagRange.getStartOffset() >= start &&
-                            tagRange.getEndOffset() <= end &&
-                            BEAN_TAG.equals(tag.getName());
-                })
-                .collect(Collectors.toList());
-    }
-    private void processBean(Project project, XmlTag beanTag,
-                             JavaPsiFacade psiFacade, PsiElementFactory elementFactory) {
+    private void processBean(XmlTag beanTag, ClassResolutionCache classes, SpringBeanGraph.BeanContext beans,
+                             MigrationPlan.Builder plan) {
         String className = beanTag.getAttributeValue("class");
         if (className == null) return;
 
-        PsiClass psiClass = psiFacade.findClass(className,
-                GlobalSearchScope.projectScope(project));
-        if (psiClass == null) return;
-
-        WriteCommandAction.runWriteCommandAction(project, () -> {
-            // Add Component annotation if not present
-            addComponentAnnotation(psiClass, elementFactory);
-
-            // Process properties
-            for (XmlTag propertyTag : beanTag.getSubTags()) {
-                if ("property".equals(propertyTag.getName())) {
-                    processProperty(propertyTag, psiClass, elementFactory);
-                }
-            }
-
-            // Process constructor args if present
-            XmlTag[] constructorArgs = beanTag.findSubTags("constructor-arg");
-            if (constructorArgs.length > 0) {
-                processConstructorInjection(constructorArgs, psiClass, elementFactory);
-            }
-        });
-    }
+        PsiClass psiClass = classes.findProjectClass(className);
+        if (psiClass == null) {
+            plan.classNotFound();
+            return;
+        }
 
-    private void addComponentAnnotation(PsiClass psiClass, PsiElementFactory elementFactory) {
-        // Check if @Component or its stereotypes are already present
-        if (!hasComponentAnnotation(psiClass)) {
-            PsiAnnotation annotation = elementFactory.createAnnotationFromText(
-                    "@org.springframework.stereotype.Component", psiClass);
-            psiClass.getModifierList().addAfter(annotation, null);
+        SpringModel.Bean bean = SpringBeansReader.readBean(PsiXmlElements.toElement(beanTag));
+        // Qualifiers of injected references depend on the other beans of the context
+        long contextHash = hasReferences(bean) ? beans.getFingerprint() : 0;
 
-            // Add import
-            addImportIfNeeded(psiClass, "org.springframework.stereotype.Component");
+        // Unchanged since the last run on all sides, nothing new to add
+        if (plan.isUnchanged(beanTag, contextHash, psiClass)) {
+            return;
         }
-    }
+        plan.addFingerprint(beanTag, contextHash, psiClass);
+
+        // Fields of the bean class by property name, each looked up once
+        Map<String, Optional<PsiField>> fields = new HashMap<>();
+        for (PlannedAnnotation annotation : SpringAnnotationRules.plan(bean)) {
+            AnnotationTarget target = annotation.target();
+            if (target.kind() == AnnotationTarget.Kind.CLASS) {
+                addClassAnnotation(psiClass, annotation.spec(), plan);
+                continue;
+            }
 
-    private boolean hasComponentAnnotation(PsiClass psiClass) {
-        PsiAnnotation[] annotations = psiClass.getModifierList().getAnnotations();
-        for (PsiAnnotation annotation : annotations) {
-            String qualifiedName = annotation.getQualifiedName();
-            if (qualifiedName != null && (
-                    qualifiedName.equals("org.springframework.stereotype.Component") ||
-                            qualifiedName.equals("org.springframework.stereotype.Service") ||
-                            qualifiedName.equals("org.springframework.stereotype.Repository") ||
-                            qualifiedName.equals("org.springframework.stereotype.Controller") ||
-                            qualifiedName.equals("org.springframework.stereotype.RestController"))) {
-                return true;
+            PsiField field = fields.computeIfAbsent(target.member(),
+                    name -> Optional.ofNullable(classes.findField(psiClass, name, plan))).orElse(null);
+            if (field != null) {
+                plan.addAnnotation(field, annotation.spec().render());
             }
         }
-        return false;
-    }
 
-    private void processProperty(XmlTag propertyTag, PsiClass psiClass,
-                                 PsiElementFactory elementFactory) {
-        String propertyName = propertyTag.getAttributeValue("name");
-        if (propertyName == null) return;
-
-        // Find the field
-        PsiField field = psiClass.findFieldByName(propertyName, false);
-        if (field == null) return;
-
-        // Add @Autowired annotation if it's a reference
-        if (propertyTag.getAttributeValue("ref") != null) {
-            if (!hasAutowiredAnnotation(field)) {
-                PsiAnnotation autowiredAnnotation = elementFactory.createAnnotationFromText(
-                        "@org.springframework.beans.factory.annotation.Autowired", field);
-                field.getModifierList().addAfter(autowiredAnnotation, null);
-
-                // Add import
-                addImportIfNeeded(psiClass,
-                        "org.springframework.beans.factory.annotation.Autowired");
+        // Qualifiers depend on the other beans of the context, so they are not part of the rules
+        for (SpringModel.PropertyInjection property : bean.properties()) {
+            PsiField field = fields.getOrDefault(property.name(), Optional.empty()).orElse(null);
+            if (property.ref() != null && field != null) {
+                addQualifierIfAmbiguous(field, property.ref(), beans, plan);
             }
         }
 
-        // Add @Value annotation if it's a value
-        String value = propertyTag.getAttributeValue("value");
-        if (value != null) {
-            PsiAnnotation valueAnnotation = elementFactory.createAnnotationFromText(
-                    "@org.springframework.beans.factory.annotation.Value(\"" + value + "\")",
-                    field);
-            field.getModifierList().addAfter(valueAnnotation, null);
-
-            // Add import
-            addImportIfNeeded(psiClass,
-                    "org.springframework.beans.factory.annotation.Value");
+        // Process constructor args if present
+        if (!bean.constructorArgs().isEmpty()) {
+            processConstructorInjection(bean.constructorArgs(), psiClass, beans, plan);
         }
     }
 
-    private void processConstructorInjection(XmlTag[] constructorArgs,
-                                             PsiClass psiClass,
-                                             PsiElementFactory elementFactory) {
-        // Find the constructor with matching parameters
-        PsiMethod[] constructors = psiClass.getConstructors();
-        for (PsiMethod constructor : constructors) {
-            if (constructor.getParameterList().getParametersCount() == constructorArgs.length) {
-                // Add @Autowired to constructor
-                if (!hasAutowiredAnnotation(constructor)) {
-                    PsiAnnotation autowiredAnnotation = elementFactory.createAnnotationFromText(
-                            "@org.springframework.beans.factory.annotation.Autowired",
-                            constructor);
-                    constructor.getModifierList().addAfter(autowiredAnnotation, null);
-
-                    // Add import
-                    addImportIfNeeded(psiClass,
-                            "org.springframework.beans.factory.annotation.Autowired");
-                }
-                break;
-            }
-        }
+    private static boolean hasReferences(SpringModel.Bean bean) {
+        return bean.properties().stream().anyMatch(property -> property.ref() != null)
+                || bean.constructorArgs().stream().anyMatch(arg -> arg.ref() != null);
     }
 
-    private boolean hasAutowiredAnnotation(PsiModifierListOwner element) {
-        PsiModifierList modifierList = element.getModifierList();
-        if (modifierList != null) {
-            for (PsiAnnotation annotation : modifierList.getAnnotations()) {
-                if ("org.springframework.beans.factory.annotation.Autowired"
-                        .equals(annotation.getQualifiedName())) {
-                    return true;
-                }
-            }
+    private void addClassAnnotation(PsiClass psiClass, AnnotationSpec spec, MigrationPlan.Builder plan) {
+        // Check if @Component or its stereotypes are already present
+        if (SpringAnnotationRules.COMPONENT.equals(spec.qualifiedName())
+                && plan.hasAnyAnnotation(psiClass, AnnotationPresence.COMPONENT_STEREOTYPES)) {
+            return;
         }
-        return false;
+        plan.addAnnotation(psiClass, spec.render());
     }
 
-    private void addImportIfNeeded(PsiClass psiClass, String qualifiedName) {
-        PsiJavaFile javaFile = (PsiJavaFile) psiClass.getContainingFile();
-        PsiImportList importList = javaFile.getImportList();
-
-        if (importList != null) {
-            boolean hasImport = false;
-            for (PsiImportStatement importStatement : importList.getImportStatements()) {
-                if (Objects.equals(importStatement.getQualifiedName(), qualifiedName)) {
-                    hasImport = true;
-                    break;
-                }
-            }
+    /**
+     * Adds {@code @Qualifier} with the referenced bean's name when several beans of the context
+     * match the field or parameter type, since autowiring by type alone would fail then.
+     */
+    private void addQualifierIfAmbiguous(PsiVariable variable, String ref, SpringBeanGraph.BeanContext beans,
+                                         MigrationPlan.Builder plan) {
+        PsiClass type = PsiUtil.resolveClassInClassTypeOnly(variable.getType());
+        if (type == null || beans.getCandidates(type).size() < 2) return;
+
+        SpringBeanGraph.BeanDefinition bean = beans.findBean(ref);
+        String beanName = bean != null && bean.primaryName() != null ? bean.primaryName() : ref;
+        plan.addAnnotation(variable, SpringAnnotationRules.qualifier(beanName).render());
+    }
 
-            if (!hasImport) {
-                PsiElementFactory elementFactory =
-                        PsiElementFactory.getInstance(psiClass.getProject());
-                importList.add(elementFactory.createImportStatement(
-                        Objects.requireNonNull(JavaPsiFacade.getInstance(psiClass.getProject())
-                                .findClass(qualifiedName,
-                                        GlobalSearchScope.allScope(psiClass.getProject())))
-                ));
+    private void processConstructorInjection(List<SpringModel.ConstructorArgument> constructorArgs,
+                                             PsiClass psiClass,
+                                             SpringBeanGraph.BeanContext beans,
+                                             MigrationPlan.Builder plan) {
+        // Find the constructor matching the arguments by index, name and type
+        ConstructorResolver.Resolution resolution = ConstructorResolver.resolve(psiClass, constructorArgs, beans);
+        if (resolution == null) return;
+
+        // Add @Autowired to constructor
+        plan.addAnnotation(resolution.constructor(), AnnotationSpec.of(SpringAnnotationRules.AUTOWIRED).render());
+
+        resolution.parameters().forEach((arg, parameter) -> {
+            if (arg.ref() != null) {
+                addQualifierIfAmbiguous(parameter, arg.ref(), beans, plan);
             }
-        }
+        });
     }
-
-
-}
\ No newline at end of file
+}
@@ -0,0 +1,210 @@
+package org.Roshan;
+
+import com.intellij.ide.highlighter.XmlFileType;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.xml.XmlFile;
+import com.intellij.psi.xml.XmlTag;
+import com.intellij.util.indexing.DataIndexer;
+import com.intellij.util.indexing.DefaultFileTypeSpecificInputFilter;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.intellij.util.indexing.FileBasedIndexExtension;
+import com.intellij.util.indexing.FileContent;
+import com.intellij.util.indexing.ID;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.DataInputOutputUtil;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Indexes which XML file declares a Java class: every Spring {@code <bean class>} and every
+ * Hibernate {@code <class name>} is stored under the class's qualified name together with its
+ * offset and mapping kind. Each mapping file is also stored under a fixed key for its kind, so
+ * the mapping files are found without going over every class name. The platform keeps the index
+ * up to date as files change, so lookups never need to parse XML files.
+ */
+public class XmlMappingIndex extends FileBasedIndexExtension<String, List<XmlMappingIndex.MappingLocation>> {
+    public static final ID<String, List<MappingLocation>> NAME = ID.create("org.Roshan.XmlMappingIndex");
+
+    private static final String BEAN_TAG = "bean";
+    private static final String CLASS_TAG = "class";
+
+    public enum MappingKind {
+        SPRING_BEAN,
+        HIBERNATE_CLASS;
+
+        /**
+         * The key every file holding mappings of this kind is stored under. Cannot clash with a
+         * class name.
+         */
+        String getFileKey() {
+            return "#files:" + name();
+        }
+    }
+
+    /**
+     * Where a class is declared inside an indexed XML file.
+     *
+     * @param kind   Whether the declaring tag is a Spring bean or a Hibernate class mapping
+     * @param offset Start offset of the declaring tag
+     */
+    public record MappingLocation(MappingKind kind, int offset) {
+    }
+
+    /**
+     * A mapping declaration resolved to its file.
+     */
+    public record MappingDeclaration(VirtualFile file, MappingLocation location) {
+    }
+
+    @Override
+    public @NotNull ID<String, List<MappingLocation>> getName() {
+        return NAME;
+    }
+
+    @Override
+    public @NotNull DataIndexer<String, List<MappingLocation>, FileContent> getIndexer() {
+        return inputData -> {
+            PsiFile psiFile = inputData.getPsiFile();
+            if (!(psiFile instanceof XmlFile xmlFile)) return Collections.emptyMap();
+
+            XmlTag rootTag = xmlFile.getRootTag();
+            if (rootTag == null) return Collections.emptyMap();
+
+            Map<String, List<MappingLocation>> result = new HashMap<>();
+            MappingKind kind = null;
+            if (SpringXmlToAnnotationsAction.BEANS_TAG.equals(rootTag.getName())) {
+                indexBeans(rootTag, result);
+                kind = MappingKind.SPRING_BEAN;
+            } else if (HibernateXmlToAnnotationsAction.HIBERNATE_MAPPING_TAG.equals(rootTag.getName())) {
+                indexHibernateClasses(rootTag, result);
+                kind = MappingKind.HIBERNATE_CLASS;
+            }
+            // Spring files count even without bean classes: an aggregator of imports and aliases
+            // joins the files of one context
+            if (kind == MappingKind.SPRING_BEAN || kind != null && !result.isEmpty()) {
+                addLocation(result, kind.getFileKey(), kind, rootTag);
+            }
+            return result;
+        };
+    }
+
+    private static void indexBeans(XmlTag parentTag, Map<String, List<MappingLocation>> result) {
+        for (XmlTag tag : parentTag.getSubTags()) {
+            if (BEAN_TAG.equals(tag.getName())) {
+                String className = tag.getAttributeValue("class");
+                if (className != null && !className.isBlank()) {
+                    addLocation(result, className.trim(), MappingKind.SPRING_BEAN, tag);
+                }
+            }
+            // Inner beans are declared inside properties and constructor args
+            indexBeans(tag, result);
+        }
+    }
+
+    private static void indexHibernateClasses(XmlTag rootTag, Map<String, List<MappingLocation>> result) {
+        String packageName = rootTag.getAttributeValue("package");
+        for (XmlTag tag : rootTag.findSubTags(CLASS_TAG)) {
+            String className = tag.getAttributeValue("name");
+            if (className == null || className.isBlank()) continue;
+
+            className = className.trim();
+            if (packageName != null && !packageName.isBlank() && className.indexOf('.') < 0) {
+                className = packageName.trim() + "." + className;
+            }
+            addLocation(result, className, MappingKind.HIBERNATE_CLASS, tag);
+        }
+    }
+
+    private static void addLocation(Map<String, List<MappingLocation>> result, String className,
+                                    MappingKind kind, XmlTag tag) {
+        result.computeIfAbsent(className, key -> new ArrayList<>())
+                .add(new MappingLocation(kind, tag.getTextRange().getStartOffset()));
+    }
+
+    @Override
+    public @NotNull KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @Override
+    public @NotNull DataExternalizer<List<MappingLocation>> getValueExternalizer() {
+        return new DataExternalizer<>() {
+            @Override
+            public void save(@NotNull DataOutput out, List<MappingLocation> locations) throws IOException {
+                DataInputOutputUtil.writeINT(out, locations.size());
+                for (MappingLocation location : locations) {
+                    DataInputOutputUtil.writeINT(out, location.kind().ordinal());
+                    DataInputOutputUtil.writeINT(out, location.offset());
+                }
+            }
+
+            @Override
+            public List<MappingLocation> read(@NotNull DataInput in) throws IOException {
+                int size = DataInputOutputUtil.readINT(in);
+                List<MappingLocation> locations = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    MappingKind kind = MappingKind.values()[DataInputOutputUtil.readINT(in)];
+                    locations.add(new MappingLocation(kind, DataInputOutputUtil.readINT(in)));
+                }
+                return locations;
+            }
+        };
+    }
+
+    @Override
+    public int getVersion() {
+        return 3;
+    }
+
+    @Override
+    public @NotNull FileBasedIndex.InputFilter getInputFilter() {
+        return new DefaultFileTypeSpecificInputFilter(XmlFileType.INSTANCE);
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+
+    /**
+     * Finds every XML declaration of the given class. Must be called in a read action in smart mode.
+     */
+    public static List<MappingDeclaration> findDeclarations(String qualifiedName, GlobalSearchScope scope) {
+        List<MappingDeclaration> declarations = new ArrayList<>();
+        FileBasedIndex.getInstance().processValues(NAME, qualifiedName, null, (file, locations) -> {
+            for (MappingLocation location : locations) {
+                declarations.add(new MappingDeclaration(file, location));
+            }
+            return true;
+        }, scope);
+        return declarations;
+    }
+
+    /**
+     * Finds every Spring beans file and every Hibernate mapping declaring at least one class, with
+     * the kind of mapping it holds. Must be called in a read action in smart mode.
+     */
+    public static Map<VirtualFile, MappingKind> findMappingFiles(GlobalSearchScope scope) {
+        FileBasedIndex index = FileBasedIndex.getInstance();
+        Map<VirtualFile, MappingKind> files = new LinkedHashMap<>();
+        for (MappingKind kind : MappingKind.values()) {
+            for (VirtualFile file : index.getContainingFiles(NAME, kind.getFileKey(), scope)) {
+                files.putIfAbsent(file, kind);
+            }
+        }
+        return files;
+    }
+}
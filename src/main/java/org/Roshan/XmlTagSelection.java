@@ -0,0 +1,85 @@
+package org.Roshan;
+
+import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.editor.SelectionModel;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.xml.XmlTag;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Selection handling shared by the conversion actions.
+ */
+final class XmlTagSelection {
+
+    private XmlTagSelection() {
+    }
+
+    /**
+     * Captures the editor selection so it can be used later from a background read action.
+     *
+     * @param editor The editor the action was invoked in, or null for a whole-file run
+     * @return The selected range, or null if the whole file should be processed
+     */
+    @Nullable
+    static TextRange getSelectionRange(@Nullable Editor editor) {
+        if (editor == null) return null;
+
+        SelectionModel selectionModel = editor.getSelectionModel();
+        if (!selectionModel.hasSelection()) return null;
+
+        return new TextRange(selectionModel.getSelectionStart(), selectionModel.getSelectionEnd());
+    }
+
+    /**
+     * Finds the tags with the given name that lie completely inside the range, at any depth below
+     * the parent. Tags of that name are not searched further, so a {@code <class>} nested in a
+     * {@code <composite-id>} or {@code <component>} is not mistaken for a mapped class. Sub tags
+     * are ordered by offset, so every level is binary searched for the first tag reaching into the
+     * range and only the tags overlapping it are visited; the cost depends on the size of the
+     * selection, not on the size of the file.
+     *
+     * @param parent  The tag to search below, usually the root tag
+     * @param range   The selected range
+     * @param tagName The name of the tags to collect
+     * @return The matching tags in document order
+     */
+    static List<XmlTag> findTagsInRange(XmlTag parent, TextRange range, String tagName) {
+        List<XmlTag> result = new ArrayList<>();
+        collectTagsInRange(parent, range, tagName, result);
+        return result;
+    }
+
+    private static void collectTagsInRange(XmlTag parent, TextRange range, String tagName, List<XmlTag> result) {
+        XmlTag[] subTags = parent.getSubTags();
+        for (int i = firstTagEndingAfter(subTags, range.getStartOffset()); i < subTags.length; i++) {
+            XmlTag tag = subTags[i];
+            TextRange tagRange = tag.getTextRange();
+            if (tagRange.getStartOffset() >= range.getEndOffset()) break;
+
+            if (tagName.equals(tag.getName())) {
+                if (range.contains(tagRange)) {
+                    result.add(tag);
+                }
+                continue;
+            }
+            collectTagsInRange(tag, range, tagName, result);
+        }
+    }
+
+    private static int firstTagEndingAfter(XmlTag[] tags, int offset) {
+        int low = 0;
+        int high = tags.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (tags[middle].getTextRange().getEndOffset() <= offset) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}